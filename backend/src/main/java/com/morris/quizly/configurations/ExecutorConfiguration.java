@@ -0,0 +1,87 @@
+package com.morris.quizly.configurations;
+
+import com.morris.quizly.models.security.ConfigurationComponent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ExecutorConfiguration {
+
+    public static final String QUIZ_PIPELINE_EXECUTOR = "quizPipelineExecutor";
+    public static final String QUIZ_STREAM_COMPLETION_EXECUTOR = "quizStreamCompletionExecutor";
+    public static final String PASSWORD_HASHING_EXECUTOR = "passwordHashingExecutor";
+
+    private final ConfigurationComponent configurationComponent;
+
+    @Autowired
+    public ExecutorConfiguration(ConfigurationComponent configurationComponent) {
+        this.configurationComponent = configurationComponent;
+    }
+
+    /**
+     * Bounded executor for the independent stages of quiz document generation (thumbnail
+     * rendering, embeddings). When the pool and queue are both full the stage is rejected rather
+     * than run on the request thread, where its timeout could not apply, and the quiz is saved
+     * without it, see {@link com.morris.quizly.services.impl.QuizlyDocumentServiceImpl}.
+     *
+     * @return {@link ThreadPoolTaskExecutor}
+     */
+    @Bean(name = QUIZ_PIPELINE_EXECUTOR)
+    public ThreadPoolTaskExecutor quizPipelineExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(configurationComponent.getQuizPipelinePoolSize());
+        executor.setMaxPoolSize(configurationComponent.getQuizPipelinePoolSize());
+        executor.setQueueCapacity(configurationComponent.getQuizPipelineQueueCapacity());
+        executor.setThreadNamePrefix("quiz-pipeline-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Bounded executor completing streamed quizzes. Completion generates the quiz document, which submits
+     * its stages to the quiz pipeline executor and waits for them, so it runs on its own pool rather than
+     * taking pipeline workers the stages need. When the pool and queue are both full the completion is
+     * rejected instead of running on the thread delivering the stream, see
+     * {@link com.morris.quizly.services.impl.QuizStreamingServiceImpl}.
+     *
+     * @return {@link ThreadPoolTaskExecutor}
+     */
+    @Bean(name = QUIZ_STREAM_COMPLETION_EXECUTOR)
+    public ThreadPoolTaskExecutor quizStreamCompletionExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(configurationComponent.getQuizStreamCompletionPoolSize());
+        executor.setMaxPoolSize(configurationComponent.getQuizStreamCompletionPoolSize());
+        executor.setQueueCapacity(configurationComponent.getQuizStreamCompletionQueueCapacity());
+        executor.setThreadNamePrefix("quiz-stream-completion-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Bounded executor for password hashing. BCrypt is deliberately CPU heavy, so a small pool keeps a
+     * burst of logins from taking every core. When the pool and queue are both full new hashing is
+     * rejected, see {@link com.morris.quizly.models.security.BoundedPasswordEncoder}.
+     *
+     * @return {@link ThreadPoolTaskExecutor}
+     */
+    @Bean(name = PASSWORD_HASHING_EXECUTOR)
+    public ThreadPoolTaskExecutor passwordHashingExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(configurationComponent.getPasswordHashingPoolSize());
+        executor.setMaxPoolSize(configurationComponent.getPasswordHashingPoolSize());
+        executor.setQueueCapacity(configurationComponent.getPasswordHashingQueueCapacity());
+        executor.setThreadNamePrefix("password-hashing-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
@@ -0,0 +1,231 @@
+package com.morris.quizly.configurations;
+
+import com.mongodb.client.MongoCollection;
+import com.morris.quizly.models.quiz.Quiz;
+import com.morris.quizly.models.security.RevokedPrincipal;
+import com.morris.quizly.models.security.UserDetails;
+import com.morris.quizly.models.security.VerificationToken;
+import com.morris.quizly.models.system.CachingEmbeddingModel;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Creates the indexes the application queries depend on once the application has started. Index
+ * creation is idempotent, existing indexes with the same definition are left untouched. The Atlas
+ * vector search index is managed here as well, so its filter fields always match the fields the
+ * vector search pre-filters on.
+ */
+@Configuration
+public class MongoIndexConfiguration {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MongoIndexConfiguration.class);
+
+    private static final String _ID = "_id";
+    private static final String USER_ID = "userId";
+    private static final String CREATED_DATE = "createdDate";
+    private static final String LANGUAGE = "language";
+    private static final String PDF_EMBEDDINGS = "pdfEmbeddings";
+    private static final String QUIZZES = "quizzes";
+    private static final String QUIZ_HISTORY_INDEX = "userId_createdDate_id";
+    private static final String EXPIRES_AT = "expiresAt";
+    private static final String EXPIRES_AT_TTL_INDEX = "expiresAt_ttl";
+    private static final String TOKEN = "token";
+    private static final String VERIFICATION_TOKEN_INDEX = "token_unique";
+    private static final String VERIFICATION_TOKEN_USER_INDEX = "userId_type";
+    private static final String USERNAME = "username";
+    private static final String USERNAME_INDEX = "username_unique";
+
+    public static final String QUIZ_VECTOR_INDEX = "quiz_pdf_vector_index";
+    // text-embedding-ada-002 vectors
+    private static final int QUIZ_VECTOR_DIMENSIONS = 1536;
+    private static final String COSINE = "cosine";
+
+    private static final String NAME = "name";
+    private static final String TYPE = "type";
+    private static final String PATH = "path";
+    private static final String FIELDS = "fields";
+    private static final String NUM_DIMENSIONS = "numDimensions";
+    private static final String SIMILARITY = "similarity";
+    private static final String VECTOR = "vector";
+    private static final String FILTER = "filter";
+    private static final String VECTOR_SEARCH = "vectorSearch";
+    private static final String DEFINITION = "definition";
+    private static final String LATEST_DEFINITION = "latestDefinition";
+    private static final String INDEXES = "indexes";
+    private static final String CREATE_SEARCH_INDEXES = "createSearchIndexes";
+    private static final String UPDATE_SEARCH_INDEX = "updateSearchIndex";
+
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public MongoIndexConfiguration(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        ensureQuizHistoryIndex();
+        ensureQuizVectorIndex();
+        ensureRevokedPrincipalTtlIndex();
+        ensureVerificationTokenIndexes();
+        ensureUsernameIndex();
+        ensureEmbeddingCacheTtlIndex();
+    }
+
+    /**
+     * Persisted embeddings are dropped by Mongo once expiresAt has passed.
+     */
+    private void ensureEmbeddingCacheTtlIndex() {
+        try {
+            mongoTemplate.indexOps(CachingEmbeddingModel.EMBEDDING_CACHE_COLLECTION).ensureIndex(new Index()
+                    .on(EXPIRES_AT, Sort.Direction.ASC)
+                    .expire(Duration.ZERO)
+                    .named(EXPIRES_AT_TTL_INDEX));
+        } catch (Exception e) {
+            LOGGER.error("Failed to create embedding cache ttl index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Users are looked up by username on every login, and signup checks if a username is in use by
+     * counting on this index alone. Being unique, it also rejects concurrent signups with the same
+     * username. Creation fails while duplicate usernames exist, these have to be resolved first.
+     */
+    private void ensureUsernameIndex() {
+        try {
+            mongoTemplate.indexOps(UserDetails.class).ensureIndex(new Index()
+                    .on(USERNAME, Sort.Direction.ASC)
+                    .unique()
+                    .named(USERNAME_INDEX));
+        } catch (Exception e) {
+            LOGGER.error("Failed to create unique username index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Tokens are looked up by value, replaced per user and type, and dropped by Mongo once expired.
+     */
+    private void ensureVerificationTokenIndexes() {
+        try {
+            IndexOperations indexOperations = mongoTemplate.indexOps(VerificationToken.class);
+            indexOperations.ensureIndex(new Index()
+                    .on(TOKEN, Sort.Direction.ASC)
+                    .unique()
+                    .named(VERIFICATION_TOKEN_INDEX));
+            indexOperations.ensureIndex(new Index()
+                    .on(USER_ID, Sort.Direction.ASC)
+                    .on(TYPE, Sort.Direction.ASC)
+                    .named(VERIFICATION_TOKEN_USER_INDEX));
+            indexOperations.ensureIndex(new Index()
+                    .on(EXPIRES_AT, Sort.Direction.ASC)
+                    .expire(Duration.ZERO)
+                    .named(EXPIRES_AT_TTL_INDEX));
+        } catch (Exception e) {
+            LOGGER.error("Failed to create verification token indexes: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Revocations are dropped by Mongo once expiresAt has passed.
+     */
+    private void ensureRevokedPrincipalTtlIndex() {
+        try {
+            mongoTemplate.indexOps(RevokedPrincipal.class).ensureIndex(new Index()
+                    .on(EXPIRES_AT, Sort.Direction.ASC)
+                    .expire(Duration.ZERO)
+                    .named(EXPIRES_AT_TTL_INDEX));
+        } catch (Exception e) {
+            LOGGER.error("Failed to create revoked principal ttl index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Quiz history is read per user, newest first, with _id breaking ties between quizzes created in
+     * the same millisecond. This index serves both the match and the sort of every history page.
+     */
+    private void ensureQuizHistoryIndex() {
+        try {
+            mongoTemplate.indexOps(Quiz.class).ensureIndex(new Index()
+                    .on(USER_ID, Sort.Direction.ASC)
+                    .on(CREATED_DATE, Sort.Direction.DESC)
+                    .on(_ID, Sort.Direction.DESC)
+                    .named(QUIZ_HISTORY_INDEX));
+        } catch (Exception e) {
+            LOGGER.error("Failed to create quiz history index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Creates the quiz vector search index, or updates it when its definition differs from the one
+     * expected by the vector search. Search indexes only exist on Atlas, elsewhere this logs a warning.
+     * Atlas builds the index asynchronously, queries keep using the previous definition until then.
+     */
+    private void ensureQuizVectorIndex() {
+        Document definition = quizVectorIndexDefinition();
+        try {
+            MongoCollection<Document> quizzes = mongoTemplate.getCollection(QUIZZES);
+            Document existing = quizzes.listSearchIndexes().name(QUIZ_VECTOR_INDEX).first();
+            if (null == existing) {
+                mongoTemplate.getDb().runCommand(new Document(CREATE_SEARCH_INDEXES, QUIZZES)
+                        .append(INDEXES, List.of(new Document(NAME, QUIZ_VECTOR_INDEX)
+                                .append(TYPE, VECTOR_SEARCH)
+                                .append(DEFINITION, definition))));
+                LOGGER.info("Created vector search index '{}'", QUIZ_VECTOR_INDEX);
+            } else if (!fieldKeys(existing.get(LATEST_DEFINITION, Document.class)).equals(fieldKeys(definition))) {
+                mongoTemplate.getDb().runCommand(new Document(UPDATE_SEARCH_INDEX, QUIZZES)
+                        .append(NAME, QUIZ_VECTOR_INDEX)
+                        .append(DEFINITION, definition));
+                LOGGER.info("Updated vector search index '{}'", QUIZ_VECTOR_INDEX);
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Unable to manage vector search index '{}': {}", QUIZ_VECTOR_INDEX, e.getMessage());
+        }
+    }
+
+    private Document quizVectorIndexDefinition() {
+        return new Document(FIELDS, List.of(
+                new Document(TYPE, VECTOR)
+                        .append(PATH, PDF_EMBEDDINGS)
+                        .append(NUM_DIMENSIONS, QUIZ_VECTOR_DIMENSIONS)
+                        .append(SIMILARITY, COSINE),
+                new Document(TYPE, FILTER).append(PATH, USER_ID),
+                new Document(TYPE, FILTER).append(PATH, LANGUAGE)
+        ));
+    }
+
+    /**
+     * Reduces the fields of a search index definition to comparable keys. Numbers are compared by
+     * their string value, the server may return them with a different numeric type.
+     *
+     * @param definition {@link Document} search index definition
+     *
+     * @return {@link Set} of field keys
+     */
+    private Set<String> fieldKeys(Document definition) {
+        Set<String> keys = new HashSet<>();
+        if (null != definition) {
+            for (Document field : definition.getList(FIELDS, Document.class, List.of())) {
+                keys.add(String.join(":",
+                        String.valueOf(field.get(TYPE)),
+                        String.valueOf(field.get(PATH)),
+                        String.valueOf(field.get(NUM_DIMENSIONS)),
+                        String.valueOf(field.get(SIMILARITY))
+                ));
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,108 @@
+package com.morris.quizly.configurations;
+
+import com.morris.quizly.models.security.ConfigurationComponent;
+import com.morris.quizly.models.system.CachingEmbeddingModel;
+import com.morris.quizly.models.system.SystemAi;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.openai.OpenAiChatModel;
+import dev.langchain4j.model.openai.OpenAiEmbeddingModel;
+import dev.langchain4j.model.openai.OpenAiEmbeddingModelName;
+import dev.langchain4j.model.openai.OpenAiStreamingChatModel;
+import dev.langchain4j.service.AiServices;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+
+/**
+ * Provides the OpenAI models and the {@link SystemAi} proxy as long-lived singletons. Each
+ * langchain4j OpenAI model owns an HTTP client with its own keep-alive connection pool, so
+ * building these once lets every quiz request reuse warm connections instead of paying for
+ * a new client, TLS handshake and AiServices proxy on each call. The models are thread-safe
+ * and are shared across all request threads.
+ * <br><br>
+ * Timeouts and retries are set from the openai.* properties. The connection pool cannot be tuned:
+ * langchain4j 0.33 builds the OkHttp client inside each model and does not expose it, so every model
+ * keeps OkHttp's default pool of 5 idle connections with a 5 minute keep-alive. The streaming model
+ * has no retries, a retried stream would repeat tokens already sent to the client.
+ */
+@Configuration
+public class OpenAiConfiguration {
+
+    private static final String GPT_4o = "gpt-4o";
+
+    private final ConfigurationComponent configurationComponent;
+
+    @Autowired
+    public OpenAiConfiguration(ConfigurationComponent configurationComponent) {
+        this.configurationComponent = configurationComponent;
+    }
+
+    @Bean
+    public ChatLanguageModel chatLanguageModel() {
+        return OpenAiChatModel.builder()
+                .apiKey(configurationComponent.getOpenAiApiKey())
+                .modelName(GPT_4o)
+                .timeout(Duration.ofSeconds(configurationComponent.getOpenAiChatTimeoutSeconds()))
+                .maxRetries(configurationComponent.getOpenAiChatMaxRetries())
+                .build();
+    }
+
+    @Bean
+    public StreamingChatLanguageModel streamingChatLanguageModel() {
+        return OpenAiStreamingChatModel.builder()
+                .apiKey(configurationComponent.getOpenAiApiKey())
+                .modelName(GPT_4o)
+                .timeout(Duration.ofSeconds(configurationComponent.getOpenAiChatTimeoutSeconds()))
+                .build();
+    }
+
+    /**
+     * The embedding model is wrapped in a {@link CachingEmbeddingModel}, so every embedding call,
+     * prompts and quiz text alike, is answered from the cache when the same text was embedded before.
+     *
+     * @param mongoTemplate {@link MongoTemplate}
+     * @param meterRegistry {@link MeterRegistry}
+     *
+     * @return {@link EmbeddingModel}
+     */
+    @Bean
+    public EmbeddingModel embeddingModel(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        EmbeddingModel openAiEmbeddingModel = OpenAiEmbeddingModel.builder()
+                .modelName(OpenAiEmbeddingModelName.TEXT_EMBEDDING_ADA_002)
+                .apiKey(configurationComponent.getOpenAiApiKey())
+                .timeout(Duration.ofSeconds(configurationComponent.getOpenAiEmbeddingTimeoutSeconds()))
+                .maxRetries(configurationComponent.getOpenAiEmbeddingMaxRetries())
+                .build();
+        return new CachingEmbeddingModel(
+                openAiEmbeddingModel,
+                OpenAiEmbeddingModelName.TEXT_EMBEDDING_ADA_002.toString(),
+                configurationComponent.getEmbeddingCacheMaxBytes(),
+                configurationComponent.isEmbeddingCacheMongoEnabled() ? mongoTemplate : null,
+                Duration.ofDays(configurationComponent.getEmbeddingCacheMongoTtlDays()),
+                meterRegistry
+        );
+    }
+
+    /**
+     * The {@link SystemAi} proxy is generated once and bound to the shared chat models, the streaming
+     * model serves its {@link dev.langchain4j.service.TokenStream} methods.
+     *
+     * @param chatLanguageModel          {@link ChatLanguageModel}
+     * @param streamingChatLanguageModel {@link StreamingChatLanguageModel}
+     *
+     * @return {@link SystemAi}
+     */
+    @Bean
+    public SystemAi systemAi(ChatLanguageModel chatLanguageModel, StreamingChatLanguageModel streamingChatLanguageModel) {
+        return AiServices.builder(SystemAi.class)
+                .chatLanguageModel(chatLanguageModel)
+                .streamingChatLanguageModel(streamingChatLanguageModel)
+                .build();
+    }
+}
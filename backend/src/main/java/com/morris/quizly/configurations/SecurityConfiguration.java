@@ -1,12 +1,20 @@
 package com.morris.quizly.configurations;
 
 import com.google.cloud.recaptchaenterprise.v1.RecaptchaEnterpriseServiceClient;
+import com.morris.quizly.models.security.BoundedDaoAuthenticationProvider;
+import com.morris.quizly.models.security.BoundedPasswordEncoder;
+import com.morris.quizly.models.security.ConfigurationComponent;
 import com.morris.quizly.models.security.JwtTokenFilter;
+import com.morris.quizly.models.security.RateLimitFilter;
 import com.morris.quizly.services.QuizlyUserDetailsService;
+import com.morris.quizly.services.RateLimitService;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.security.SecurityProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -25,11 +33,16 @@ public class SecurityConfiguration {
 
     private final QuizlyUserDetailsService userDetailsService;
     private final JwtTokenFilter jwtTokenFilter;
+    private final ConfigurationComponent configurationComponent;
+    private final RateLimitService rateLimitService;
 
     @Autowired
-    public SecurityConfiguration(QuizlyUserDetailsService userDetailsService, JwtTokenFilter jwtTokenFilter) {
+    public SecurityConfiguration(QuizlyUserDetailsService userDetailsService, JwtTokenFilter jwtTokenFilter,
+                                 ConfigurationComponent configurationComponent, RateLimitService rateLimitService) {
         this.userDetailsService = userDetailsService;
         this.jwtTokenFilter = jwtTokenFilter;
+        this.configurationComponent = configurationComponent;
+        this.rateLimitService = rateLimitService;
     }
 
     @Bean
@@ -43,6 +56,7 @@ public class SecurityConfiguration {
                                 "/api/subscriptions/**",
                                 "/api/quiz-generation/**",
                                 "/api/quiz-retrieval/**",
+                                "/api/avatars/**",
                                 "/login",
                                 "/logout",
                                 "/dashboard",
@@ -66,13 +80,32 @@ public class SecurityConfiguration {
                         .permitAll() // Allow access to the logout URL
                 );
 
+        if (configurationComponent.isRateLimitEnabled()) {
+            http.addFilterAfter(new RateLimitFilter(rateLimitService), JwtTokenFilter.class);
+        }
         return http.build();
     }
 
 
+    /**
+     * BCrypt with the configured cost factor, hashed on the bounded password hashing executor.
+     * Stored hashes with a lower cost factor are upgraded on the next successful login that the
+     * executor has room for, see {@link BoundedDaoAuthenticationProvider}.
+     *
+     * @param passwordHashingExecutor {@link AsyncTaskExecutor}
+     * @param meterRegistry           {@link MeterRegistry}
+     *
+     * @return {@link PasswordEncoder}
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Qualifier(ExecutorConfiguration.PASSWORD_HASHING_EXECUTOR) AsyncTaskExecutor passwordHashingExecutor,
+                                           MeterRegistry meterRegistry) {
+        return new BoundedPasswordEncoder(
+                new BCryptPasswordEncoder(configurationComponent.getPasswordBcryptStrength()),
+                passwordHashingExecutor,
+                configurationComponent.getPasswordHashingRetryAfterSeconds(),
+                meterRegistry
+        );
     }
 
     @Bean
@@ -81,9 +114,13 @@ public class SecurityConfiguration {
     }
 
     @Bean
-    public AuthenticationManager authenticationManager(HttpSecurity http) throws Exception {
+    public AuthenticationManager authenticationManager(HttpSecurity http, PasswordEncoder passwordEncoder) throws Exception {
+        BoundedDaoAuthenticationProvider authenticationProvider = new BoundedDaoAuthenticationProvider(passwordEncoder);
+        authenticationProvider.setUserDetailsService(userDetailsService);
+        // userDetailsService is also a UserDetailsPasswordService, which enables rehash on login
+        authenticationProvider.setUserDetailsPasswordService(userDetailsService);
         AuthenticationManagerBuilder authenticationManagerBuilder = http.getSharedObject(AuthenticationManagerBuilder.class);
-        authenticationManagerBuilder.userDetailsService(userDetailsService).passwordEncoder(passwordEncoder());
+        authenticationManagerBuilder.authenticationProvider(authenticationProvider);
         return authenticationManagerBuilder.build();
     }
 
@@ -3,6 +3,7 @@ package com.morris.quizly.configurations;
 import com.mongodb.MongoClientSettings;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
+import com.morris.quizly.models.quiz.FloatVectorCodec;
 import com.morris.quizly.models.quiz.Quiz;
 import com.morris.quizly.models.quiz.QuizlyQuestionGroup;
 import com.morris.quizly.models.security.ConfigurationComponent;
@@ -16,6 +17,7 @@ import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.convert.DefaultMongoTypeMapper;
 import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
 
+import static org.bson.codecs.configuration.CodecRegistries.fromCodecs;
 import static org.bson.codecs.configuration.CodecRegistries.fromProviders;
 import static org.bson.codecs.configuration.CodecRegistries.fromRegistries;
 
@@ -52,6 +54,7 @@ public class SpringMongoConfig {
     @Bean
     public CodecRegistry codecRegistry() {
         return fromRegistries(
+                fromCodecs(new FloatVectorCodec()),
                 MongoClientSettings.getDefaultCodecRegistry(),
                 fromProviders(
                         PojoCodecProvider.builder()
@@ -62,6 +62,15 @@ public class AuthController {
         return authenticationService.authenticateSignup(signupRequest);
     }
 
+    @PostMapping("/signup/resend-confirmation")
+    public ResponseEntity<?> resendSignupConfirmation(@Valid @RequestBody SignupConfirmationRequest request, BindingResult bindingResult) {
+        String errors = getBindingErrorsAsString(bindingResult);
+        if (errors != null) {
+            return ResponseEntity.badRequest().body(errors);
+        }
+        return authenticationService.resendSignupConfirmation(request);
+    }
+
     @PostMapping("/password-reset/verify-recaptcha")
     public ResponseEntity<?> verifyRecaptcha(@Valid @RequestBody RecaptchaRequest request, BindingResult bindingResult) {
         String errors = getBindingErrorsAsString(bindingResult);
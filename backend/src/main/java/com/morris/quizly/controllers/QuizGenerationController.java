@@ -1,12 +1,14 @@
 package com.morris.quizly.controllers;
 
 import com.morris.quizly.models.quiz.Quiz;
+import com.morris.quizly.models.quiz.QuizGeneration;
 import com.morris.quizly.models.quiz.QuizRequest;
 import com.morris.quizly.models.quiz.QuizlyQuestionGroup;
 import com.morris.quizly.models.system.Flag;
 import com.morris.quizly.models.system.FlagType;
 import com.morris.quizly.models.system.SystemFlag;
 import com.morris.quizly.services.OpenAiService;
+import com.morris.quizly.services.QuizStreamingService;
 import com.morris.quizly.services.QuizlyDocumentService;
 import com.morris.quizly.services.SystemFlaggingService;
 import jakarta.validation.Valid;
@@ -22,6 +24,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.Instant;
 import java.util.List;
@@ -37,13 +40,15 @@ public class QuizGenerationController {
     private final OpenAiService openAiService;
     private final QuizlyDocumentService quizlyDocumentService;
     private final SystemFlaggingService systemFlaggingService;
+    private final QuizStreamingService quizStreamingService;
 
     @Autowired
     public QuizGenerationController(OpenAiService openAiService, QuizlyDocumentService quizlyDocumentService,
-                                    SystemFlaggingService systemFlaggingService) {
+                                    SystemFlaggingService systemFlaggingService, QuizStreamingService quizStreamingService) {
         this.openAiService = openAiService;
         this.quizlyDocumentService = quizlyDocumentService;
         this.systemFlaggingService = systemFlaggingService;
+        this.quizStreamingService = quizStreamingService;
     }
 
     /**
@@ -54,9 +59,8 @@ public class QuizGenerationController {
      */
     @PostMapping("/basic")
     public ResponseEntity<?> generateBasicQuiz(@Validated @RequestBody QuizRequest quizRequest) {
-        String questionsContext = String.format("Generate %d questions.", quizRequest.getNumberOfQuestions());
-        String prompt = String.format("%s %s", questionsContext, quizRequest.getPrompt());
-        String response = openAiService.generateBasicQuizResponse(prompt, quizRequest.getLanguage());
+        QuizGeneration generation = openAiService.generateBasicQuiz(quizRequest);
+        String response = generation.getResponse();
 
         if (response.equals(UNSUCCESSFUL)) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -83,7 +87,7 @@ public class QuizGenerationController {
                     .contentType(MediaType.APPLICATION_JSON)
                     .body(ACCESS_DENIED.toLowerCase() + " " + accountFlag);
         }
-        List<QuizlyQuestionGroup> quiz = quizlyDocumentService.generateQuizlyPDF(response,  quizRequest);
+        List<QuizlyQuestionGroup> quiz = quizlyDocumentService.generateQuizlyPDF(generation.getParseResult(), quizRequest);
         if (!quiz.isEmpty()) {
             return ResponseEntity.ok()
                     .contentType(MediaType.APPLICATION_JSON)
@@ -94,6 +98,18 @@ public class QuizGenerationController {
                 .body(null);
     }
 
+    /**
+     * Streams the generation of a basic {@link Quiz} as Server-Sent Events, each question is sent as
+     * soon as it has been generated.
+     *
+     * @param quizRequest {@link QuizRequest}
+     * @return {@link SseEmitter} event stream, see {@link QuizStreamingService#streamBasicQuiz(QuizRequest)}
+     */
+    @PostMapping(value = "/basic/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBasicQuiz(@Validated @RequestBody QuizRequest quizRequest) {
+        return quizStreamingService.streamBasicQuiz(quizRequest);
+    }
+
     @PostMapping("/complex")
     public ResponseEntity<?> getDocumentMatches(@Valid @RequestBody QuizRequest quizRequest, BindingResult bindingResult) {
         if (bindingResult.hasErrors()) {
@@ -1,46 +1,132 @@
 package com.morris.quizly.controllers;
 
-import com.morris.quizly.models.quiz.Quiz;
+import com.morris.quizly.models.quiz.QuizCursor;
+import com.morris.quizly.models.quiz.QuizFile;
+import com.morris.quizly.models.quiz.QuizSummary;
+import com.morris.quizly.models.quiz.QuizSummaryCursorPage;
+import com.morris.quizly.services.QuizFileStorageService;
 import com.morris.quizly.services.QuizlyDocumentService;
+import com.morris.quizly.utils.CursorUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.TimeUnit;
+
 @RestController
 @RequestMapping("/api/quiz-retrieval")
 public class QuizRetrievalController {
     private static final Logger LOGGER = LoggerFactory.getLogger(QuizRetrievalController.class);
 
+    private static final int MAX_PAGE_SIZE = 50;
+
     private final QuizlyDocumentService quizlyDocumentService;
-    private final PagedResourcesAssembler<Quiz> pagedResourcesAssembler;
+    private final QuizFileStorageService quizFileStorageService;
+    private final PagedResourcesAssembler<QuizSummary> pagedResourcesAssembler;
 
     @Autowired
-    public QuizRetrievalController(QuizlyDocumentService quizlyDocumentService, PagedResourcesAssembler<Quiz> pagedResourcesAssembler) {
+    public QuizRetrievalController(QuizlyDocumentService quizlyDocumentService, QuizFileStorageService quizFileStorageService,
+                                   PagedResourcesAssembler<QuizSummary> pagedResourcesAssembler) {
         this.quizlyDocumentService = quizlyDocumentService;
+        this.quizFileStorageService = quizFileStorageService;
         this.pagedResourcesAssembler = pagedResourcesAssembler;
     }
 
     /**
-     * Returns quizzes by a specified user in descending order (most recent first), paginated
+     * Returns quiz summaries by a specified user in descending order (most recent first), paginated
      * in sizes of 9 documents per page.
      *
      * @param userId {@link String} user identification
      * @param page   int: page number
      * @param size   int: document count
      *
-     * @return {@link  PagedModel} consisting of quiz documents
+     * @return {@link  PagedModel} consisting of quiz summaries
      */
     @GetMapping("/{userId}/quizzes")
     public PagedModel<?> getQuizzesByUserIdDescending(@PathVariable String userId,
                                                       @RequestParam(defaultValue = "0") int page,
                                                       @RequestParam(defaultValue = "9") int size) {
 
-        Page<Quiz> quizzes = quizlyDocumentService.getQuizzesByUserIdDescending(userId, PageRequest.of(page, size));
+        Page<QuizSummary> quizzes = quizlyDocumentService.getQuizSummariesByUserIdDescending(userId, PageRequest.of(page, size));
         return pagedResourcesAssembler.toModel(quizzes);
     }
+
+    /**
+     * Returns quiz summaries by a specified user in descending order (most recent first), reading from
+     * the position of a continuation token. Unlike page numbers, every page costs the same to read.
+     *
+     * @param userId {@link String} user identification
+     * @param cursor {@link String} continuation token from the previous page, absent for the first page
+     * @param size   int: document count
+     *
+     * @return {@link ResponseEntity} consisting of quiz summaries and the next continuation token
+     */
+    @GetMapping("/{userId}/quizzes/cursor")
+    public ResponseEntity<?> getQuizzesByUserIdAfterCursor(@PathVariable String userId,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(defaultValue = "9") int size) {
+        QuizCursor quizCursor = null;
+        if (null != cursor && !cursor.isBlank()) {
+            try {
+                quizCursor = CursorUtil.decodeQuizCursor(cursor);
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body("Invalid cursor");
+            }
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        QuizSummaryCursorPage quizzes = quizlyDocumentService.getQuizSummariesByUserIdAfterCursor(userId, quizCursor, pageSize);
+        if (null == quizzes) {
+            return ResponseEntity.internalServerError().build();
+        }
+        return ResponseEntity.ok(quizzes);
+    }
+
+    /**
+     * Streams the PDF of a quiz. The file is copied from storage to the response in chunks and is never
+     * held in memory as a whole.
+     *
+     * @param quizId {@link String} quiz identification
+     *
+     * @return {@link ResponseEntity} streaming the PDF
+     */
+    @GetMapping("/quizzes/{quizId}/pdf")
+    public ResponseEntity<Resource> getQuizPdf(@PathVariable String quizId) {
+        return streamQuizFile(quizFileStorageService.getQuizPdf(quizId));
+    }
+
+    /**
+     * Streams the thumbnail of a quiz.
+     *
+     * @param quizId {@link String} quiz identification
+     *
+     * @return {@link ResponseEntity} streaming the thumbnail image
+     */
+    @GetMapping("/quizzes/{quizId}/thumbnail")
+    public ResponseEntity<Resource> getQuizThumbnail(@PathVariable String quizId) {
+        return streamQuizFile(quizFileStorageService.getQuizThumbnail(quizId));
+    }
+
+    private ResponseEntity<Resource> streamQuizFile(QuizFile quizFile) {
+        if (null == quizFile) {
+            return ResponseEntity.notFound().build();
+        }
+        MediaType contentType = null != quizFile.getContentType()
+                ? MediaType.parseMediaType(quizFile.getContentType())
+                : MediaType.APPLICATION_OCTET_STREAM;
+        // quiz files never change once written
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .contentLength(quizFile.getContentLength())
+                .cacheControl(CacheControl.maxAge(30, TimeUnit.DAYS).cachePrivate())
+                .body(quizFile.getResource());
+    }
 }
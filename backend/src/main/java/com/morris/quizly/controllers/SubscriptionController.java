@@ -9,6 +9,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -20,6 +21,8 @@ import java.io.IOException;
 @RequestMapping("/api/subscriptions")
 public class SubscriptionController {
 
+    private static final String INVALID_SIGNUP_TOKEN = "Invalid or expired token, request a new confirmation email from the login page";
+
     private final QuizlyUserDetailsService userService;
     private final JwtTokenProvider jwtTokenProvider;
 
@@ -31,10 +34,17 @@ public class SubscriptionController {
 
     @GetMapping("/confirm-signup")
     public ResponseEntity<String> confirmSignup(@RequestParam("token") String token) {
-        UserDetails user = userService.findBySignupToken(token);
+        UserDetails user;
+        try {
+            user = userService.findBySignupToken(token);
+        } catch (UsernameNotFoundException e) {
+            // signup tokens expire, a new confirmation email can be requested from the login page
+            user = null;
+        }
         if (null == user) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid token");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(INVALID_SIGNUP_TOKEN);
         }
+        // enabling the user removes the signup token, the link cannot be reused
         userService.updateEnabledStatus(user, true);
 
         String htmlResponse = "<html>" +
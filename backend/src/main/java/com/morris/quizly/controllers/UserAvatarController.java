@@ -0,0 +1,48 @@
+package com.morris.quizly.controllers;
+
+import com.morris.quizly.models.security.UserAvatar;
+import com.morris.quizly.services.UserAvatarService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequestMapping("/api/avatars")
+public class UserAvatarController {
+
+    private final UserAvatarService userAvatarService;
+
+    @Autowired
+    public UserAvatarController(UserAvatarService userAvatarService) {
+        this.userAvatarService = userAvatarService;
+    }
+
+    /**
+     * Returns a user avatar. The response carries the content hash as ETag, so a request with a
+     * matching If-None-Match header is answered with 304 Not Modified and no body.
+     *
+     * @param avatarId {@link String} avatar identification
+     *
+     * @return {@link ResponseEntity} consisting of the avatar image
+     */
+    @GetMapping("/{avatarId}")
+    public ResponseEntity<byte[]> getAvatar(@PathVariable String avatarId) {
+        UserAvatar avatar = userAvatarService.getAvatar(avatarId);
+        if (null == avatar) {
+            return ResponseEntity.notFound().build();
+        }
+        // avatars never change once written, a new upload gets a new id
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(avatar.getContentType()))
+                .eTag(avatar.getEtag())
+                .cacheControl(CacheControl.maxAge(30, TimeUnit.DAYS).cachePrivate())
+                .body(avatar.getData());
+    }
+}
@@ -0,0 +1,92 @@
+package com.morris.quizly.models.pdf;
+
+import com.morris.quizly.models.security.ConfigurationComponent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Holds parsed DejaVu Sans {@link TrueTypeFont} instances for PDF generation. The font file is read from
+ * the classpath once, and parsed fonts are handed out to one document at a time and returned to the pool
+ * once the document is saved. A {@link TrueTypeFont} is not safe for concurrent use, so each document
+ * borrows its own instance and embeds its own subset, while the parsed tables are reused across documents.
+ */
+@Component
+public class PdfFontPool {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PdfFontPool.class);
+
+    private static final String DEJAVU_SANS_FONT = "/fonts/DejaVuSans.ttf";
+
+    private final ConfigurationComponent configurationComponent;
+
+    private byte[] dejavuSansBytes;
+    private BlockingQueue<TrueTypeFont> idleFonts;
+
+    @Autowired
+    public PdfFontPool(ConfigurationComponent configurationComponent) {
+        this.configurationComponent = configurationComponent;
+    }
+
+    @PostConstruct
+    protected void init() throws IOException {
+        try (InputStream inputStream = new ClassPathResource(DEJAVU_SANS_FONT).getInputStream()) {
+            dejavuSansBytes = StreamUtils.copyToByteArray(inputStream);
+        }
+        idleFonts = new ArrayBlockingQueue<>(configurationComponent.getQuizPdfFontPoolSize());
+    }
+
+    /**
+     * Borrow a parsed DejaVu Sans font. The font must be given back with {@link #release(TrueTypeFont)}
+     * after the document using it has been saved, since subsetting happens on save.
+     *
+     * @return {@link TrueTypeFont}
+     * @throws IOException if the font cannot be parsed
+     */
+    public TrueTypeFont borrow() throws IOException {
+        TrueTypeFont font = idleFonts.poll();
+        if (null != font) {
+            return font;
+        }
+        return new TTFParser().parse(new ByteArrayInputStream(dejavuSansBytes));
+    }
+
+    /**
+     * Return a font to the pool. Fonts beyond the pool size are closed.
+     *
+     * @param font {@link TrueTypeFont}
+     */
+    public void release(TrueTypeFont font) {
+        if (null != font && !idleFonts.offer(font)) {
+            close(font);
+        }
+    }
+
+    @PreDestroy
+    protected void destroy() {
+        TrueTypeFont font;
+        while ((font = idleFonts.poll()) != null) {
+            close(font);
+        }
+    }
+
+    private void close(TrueTypeFont font) {
+        try {
+            font.close();
+        } catch (IOException e) {
+            LOGGER.warn("Error closing pooled font: {}", e.getMessage());
+        }
+    }
+}
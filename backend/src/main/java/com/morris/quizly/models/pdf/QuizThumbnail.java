@@ -0,0 +1,17 @@
+package com.morris.quizly.models.pdf;
+
+import lombok.*;
+
+/**
+ * Encoded thumbnail image of the first page of a quiz PDF.
+ */
+@Getter
+@Setter
+@ToString(exclude = "data")
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuizThumbnail {
+    private byte[] data;
+    private String contentType;
+}
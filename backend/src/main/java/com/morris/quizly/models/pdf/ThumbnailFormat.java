@@ -0,0 +1,25 @@
+package com.morris.quizly.models.pdf;
+
+/**
+ * Image formats supported for quiz thumbnails.
+ */
+public enum ThumbnailFormat {
+    JPEG("jpeg", "image/jpeg"),
+    PNG("png", "image/png");
+
+    private final String formatName;
+    private final String contentType;
+
+    ThumbnailFormat(String formatName, String contentType) {
+        this.formatName = formatName;
+        this.contentType = contentType;
+    }
+
+    public String getFormatName() {
+        return formatName;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
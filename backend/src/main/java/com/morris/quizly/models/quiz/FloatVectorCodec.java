@@ -0,0 +1,52 @@
+package com.morris.quizly.models.quiz;
+
+import com.morris.quizly.utils.VectorUtil;
+import org.bson.BsonBinary;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.Binary;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Driver codec for float[] vectors, the counterpart of {@link FloatVectorConverter} for documents
+ * decoded with the POJO codecs. Arrays of numbers stored before the migration are still decoded.
+ */
+public class FloatVectorCodec implements Codec<float[]> {
+
+    @Override
+    public void encode(BsonWriter writer, float[] value, EncoderContext encoderContext) {
+        Binary vector = VectorUtil.toBinaryVector(value);
+        writer.writeBinaryData(new BsonBinary(vector.getType(), vector.getData()));
+    }
+
+    @Override
+    public float[] decode(BsonReader reader, DecoderContext decoderContext) {
+        if (reader.getCurrentBsonType() == BsonType.ARRAY) {
+            List<Float> values = new ArrayList<>();
+            reader.readStartArray();
+            while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+                switch (reader.getCurrentBsonType()) {
+                    case DOUBLE -> values.add((float) reader.readDouble());
+                    case INT32 -> values.add((float) reader.readInt32());
+                    case INT64 -> values.add((float) reader.readInt64());
+                    default -> throw new IllegalArgumentException("Unsupported vector element: " + reader.getCurrentBsonType());
+                }
+            }
+            reader.readEndArray();
+            return VectorUtil.fromList(values);
+        }
+        BsonBinary binary = reader.readBinaryData();
+        return VectorUtil.fromBinaryVector(new Binary(binary.getType(), binary.getData()));
+    }
+
+    @Override
+    public Class<float[]> getEncoderClass() {
+        return float[].class;
+    }
+}
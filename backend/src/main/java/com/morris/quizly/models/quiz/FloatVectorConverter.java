@@ -0,0 +1,31 @@
+package com.morris.quizly.models.quiz;
+
+import com.morris.quizly.utils.VectorUtil;
+import org.bson.types.Binary;
+import org.springframework.data.mongodb.core.convert.MongoConversionContext;
+import org.springframework.data.mongodb.core.convert.MongoValueConverter;
+
+import java.util.List;
+
+/**
+ * Maps a float[] property to a BSON float32 binary vector for Spring Data. Vectors that were stored
+ * as arrays of doubles before the migration are still read.
+ */
+public class FloatVectorConverter implements MongoValueConverter<float[], Object> {
+
+    @Override
+    public float[] read(Object value, MongoConversionContext context) {
+        if (value instanceof Binary binary) {
+            return VectorUtil.fromBinaryVector(binary);
+        }
+        if (value instanceof List<?> values) {
+            return VectorUtil.fromList(values);
+        }
+        throw new IllegalArgumentException("Unsupported vector value: " + value.getClass().getName());
+    }
+
+    @Override
+    public Object write(float[] value, MongoConversionContext context) {
+        return VectorUtil.toBinaryVector(value);
+    }
+}
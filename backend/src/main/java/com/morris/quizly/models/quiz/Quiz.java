@@ -1,5 +1,6 @@
 package com.morris.quizly.models.quiz;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
@@ -8,6 +9,7 @@ import lombok.*;
 import org.bson.codecs.pojo.annotations.BsonId;
 import org.bson.types.ObjectId;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.convert.ValueConverter;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.format.annotation.DateTimeFormat;
 
@@ -16,7 +18,7 @@ import java.util.List;
 
 @Getter
 @Setter
-@ToString
+@ToString(exclude = "pdfEmbeddings")
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
@@ -31,9 +33,16 @@ public class Quiz {
     private String userId;
     private String quizTitle;
     private List<QuizlyQuestionGroup> questionsGroup;
-    private byte[] pdfContent;
-    private List<Double> pdfEmbeddings;
-    private String pdfImage;
+
+    // stored as a float32 binary vector
+    @ValueConverter(FloatVectorConverter.class)
+    private float[] pdfEmbeddings;
+
+    // PDF and thumbnail binaries live in GridFS, see QuizFileStorageService
+    @JsonIgnore
+    private ObjectId pdfFileId;
+    @JsonIgnore
+    private ObjectId thumbnailFileId;
     private Language language;
     private String prompt;
     private List<String> recommendations;
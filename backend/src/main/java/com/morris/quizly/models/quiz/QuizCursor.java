@@ -0,0 +1,21 @@
+package com.morris.quizly.models.quiz;
+
+import lombok.*;
+import org.bson.types.ObjectId;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position of the last quiz returned in a cursor page. Quizzes are ordered by createdDate and _id,
+ * both descending, so the pair identifies exactly where the next page starts.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuizCursor {
+    private LocalDateTime createdDate;
+    private ObjectId id;
+}
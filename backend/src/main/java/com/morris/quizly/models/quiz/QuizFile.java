@@ -0,0 +1,19 @@
+package com.morris.quizly.models.quiz;
+
+import lombok.*;
+import org.springframework.core.io.Resource;
+
+/**
+ * A stored quiz file (PDF or thumbnail) ready to be streamed to the client.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuizFile {
+    private Resource resource;
+    private String contentType;
+    private long contentLength;
+}
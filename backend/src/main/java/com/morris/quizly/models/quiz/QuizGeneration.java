@@ -0,0 +1,19 @@
+package com.morris.quizly.models.quiz;
+
+import lombok.*;
+
+/**
+ * A generated quiz response and, when generation succeeded, its parse. Identical requests coalesced
+ * on one generation share the same instance, so its question groups must be copied before they are
+ * saved to a quiz of their own.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuizGeneration {
+    private String response;
+    private QuizParseResult parseResult;
+}
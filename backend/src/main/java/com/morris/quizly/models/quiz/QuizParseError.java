@@ -0,0 +1,20 @@
+package com.morris.quizly.models.quiz;
+
+import lombok.*;
+
+/**
+ * A formatting problem found while parsing a generated quiz. Parsing continues past errors, so a quiz
+ * with errors may still be usable.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuizParseError {
+    private QuizParseErrorType type;
+    // 1-based line of the response, 0 when the error is not tied to a line
+    private int line;
+    private String detail;
+}
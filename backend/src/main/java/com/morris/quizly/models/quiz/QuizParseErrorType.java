@@ -0,0 +1,11 @@
+package com.morris.quizly.models.quiz;
+
+/**
+ * Kinds of formatting problems found while parsing a generated quiz, see {@link QuizParser}.
+ */
+public enum QuizParseErrorType {
+    MISSING_ANSWER_KEY,
+    MISSING_ANSWER,
+    INCOMPLETE_QUESTION,
+    UNEXPECTED_LINE
+}
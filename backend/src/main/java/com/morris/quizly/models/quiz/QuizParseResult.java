@@ -0,0 +1,21 @@
+package com.morris.quizly.models.quiz;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Outcome of parsing a generated quiz: the question groups, the answer key rebuilt from the parsed
+ * answers, and any formatting errors found on the way.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuizParseResult {
+    private List<QuizlyQuestionGroup> questionGroups;
+    private String answerKey;
+    private List<QuizParseError> errors;
+}
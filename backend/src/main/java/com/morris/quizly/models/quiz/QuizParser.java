@@ -0,0 +1,272 @@
+package com.morris.quizly.models.quiz;
+
+import com.morris.quizly.models.locales.Language;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single pass parser of a generated quiz. The response is walked line by line, without splitting or
+ * regular expressions, through this grammar:
+ * <pre>
+ *   quiz      = [title] { question option option option option } [answer-key]
+ *   question  = number ("." | ")") space text
+ *   option    = letter ("." | ")") space text      letter A-D, or А-Г in Bulgarian
+ *   answerKey = marker { number ("." | ")") [space] text }
+ * </pre>
+ * Blank lines are skipped anywhere, a line that matches nothing else continues the question or option
+ * before it, and separators are normalized to ".". Markdown emphasis or a heading around the marker, as
+ * in "**Answer Key:**", is ignored. Problems such as a missing answer key or an
+ * incomplete question are reported as {@link QuizParseError}s instead of failing the parse.
+ */
+public final class QuizParser {
+
+    public static final String ANSWER_KEY_MARKER_EN = "Answer Key:";
+    public static final String ANSWER_KEY_MARKER_BG = "Ключ за отговори:";
+    public static final String QUIZ_TITLE_MARKER_EN = "Quiz Title:";
+    public static final String QUIZ_TITLE_MARKER_BG = "Заглавие на теста:";
+    public static final String NO_ANSWER_PROVIDED = "No answer provided";
+
+    static final int OPTION_COUNT = 4;
+    private static final String LATIN_OPTIONS = "ABCD";
+    private static final String CYRILLIC_OPTIONS = "АБВГ";
+    private static final String MARKUP = "*_#>`";
+
+    private QuizParser() {
+    }
+
+    /**
+     * Parse a generated quiz.
+     *
+     * @param text     {@link String} generated quiz
+     * @param language {@link Language} language of the quiz
+     *
+     * @return {@link QuizParseResult}
+     */
+    public static QuizParseResult parse(String text, Language language) {
+        String answerKeyMarker = answerKeyMarker(language);
+        String titleMarker = language == Language.BG ? QUIZ_TITLE_MARKER_BG : QUIZ_TITLE_MARKER_EN;
+
+        List<QuizlyQuestionGroup> questionGroups = new ArrayList<>();
+        List<Integer> questionNumbers = new ArrayList<>();
+        Map<Integer, String> answers = new HashMap<>();
+        List<String> answersInOrder = new ArrayList<>();
+        List<QuizParseError> errors = new ArrayList<>();
+
+        String question = null;
+        int questionNumber = 0;
+        int questionLine = 0;
+        List<String> options = null;
+        boolean inAnswerKey = false;
+
+        int length = text.length();
+        int lineNumber = 0;
+        int start = 0;
+        while (start < length) {
+            int end = text.indexOf('\n', start);
+            if (end < 0) {
+                end = length;
+            }
+            lineNumber++;
+            String line = text.substring(start, end).strip();
+            start = end + 1;
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            int answersStart = inAnswerKey ? -1 : answersStart(line, answerKeyMarker);
+            if (answersStart >= 0) {
+                inAnswerKey = true;
+                if (null != question) {
+                    errors.add(incompleteQuestion(questionLine, questionNumber));
+                    question = null;
+                }
+                // answers may follow the marker on the same line
+                line = line.substring(answersStart).strip();
+                if (line.isEmpty()) {
+                    continue;
+                }
+            }
+
+            if (inAnswerKey) {
+                int prefix = answerPrefixLength(line);
+                if (prefix > 0) {
+                    String answer = line.substring(prefix).strip();
+                    answers.putIfAbsent(parseNumber(line, prefix), answer);
+                    answersInOrder.add(answer);
+                } else {
+                    errors.add(error(QuizParseErrorType.UNEXPECTED_LINE, lineNumber, line));
+                }
+                continue;
+            }
+
+            int prefix = numberPrefixLength(line);
+            if (prefix > 0) {
+                if (null != question) {
+                    errors.add(incompleteQuestion(questionLine, questionNumber));
+                }
+                question = normalizeSeparator(line, prefix);
+                questionNumber = parseNumber(line, prefix);
+                questionLine = lineNumber;
+                options = new ArrayList<>(OPTION_COUNT);
+                continue;
+            }
+
+            if (null != question && optionIndex(line) == options.size()) {
+                options.add(normalizeSeparator(line, 2));
+                if (options.size() == OPTION_COUNT) {
+                    questionGroups.add(QuizlyQuestionGroup.builder()
+                            .question(question)
+                            .options(options)
+                            .build());
+                    questionNumbers.add(questionNumber);
+                    question = null;
+                }
+            } else if (null != question && options.isEmpty()) {
+                // a wrapped question
+                question = question + ' ' + line;
+            } else if (null != question) {
+                // a wrapped option
+                options.set(options.size() - 1, options.get(options.size() - 1) + ' ' + line);
+            } else if (!(questionGroups.isEmpty() && null == question && line.startsWith(titleMarker))) {
+                errors.add(error(QuizParseErrorType.UNEXPECTED_LINE, lineNumber, line));
+            }
+        }
+        if (null != question) {
+            errors.add(incompleteQuestion(questionLine, questionNumber));
+        }
+        if (!inAnswerKey) {
+            errors.add(error(QuizParseErrorType.MISSING_ANSWER_KEY, 0, answerKeyMarker));
+        }
+
+        StringBuilder answerKey = new StringBuilder();
+        for (int i = 0; i < questionGroups.size(); i++) {
+            int number = questionNumbers.get(i);
+            // answers are matched by number, or by position when the key is numbered differently
+            String answer = answers.get(number);
+            if (null == answer && i < answersInOrder.size()) {
+                answer = answersInOrder.get(i);
+            }
+            if (null == answer || answer.isEmpty()) {
+                answer = NO_ANSWER_PROVIDED;
+                if (inAnswerKey) {
+                    errors.add(error(QuizParseErrorType.MISSING_ANSWER, 0, "question " + number));
+                }
+            }
+            questionGroups.get(i).setAnswer(answer);
+            if (i > 0) {
+                answerKey.append('\n');
+            }
+            answerKey.append(number).append(". ").append(answer);
+        }
+        return QuizParseResult.builder()
+                .questionGroups(questionGroups)
+                .answerKey(answerKey.toString())
+                .errors(errors)
+                .build();
+    }
+
+    static String answerKeyMarker(Language language) {
+        return language == Language.BG ? ANSWER_KEY_MARKER_BG : ANSWER_KEY_MARKER_EN;
+    }
+
+    /**
+     * Get where the answers of an answer key line begin, after its marker and any markup around it, so
+     * "**Answer Key:** 1. A" begins at "1. A".
+     *
+     * @return int index after the marker, -1 if the line does not start the answer key
+     */
+    static int answersStart(String line, String answerKeyMarker) {
+        int i = skipMarkup(line, 0);
+        if (!line.startsWith(answerKeyMarker, i)) {
+            return -1;
+        }
+        return skipMarkup(line, i + answerKeyMarker.length());
+    }
+
+    /**
+     * Get the length of a "12." or "12)" prefix followed by whitespace.
+     *
+     * @return int prefix length including the separator, 0 if the line has no such prefix
+     */
+    static int numberPrefixLength(String line) {
+        int i = 0;
+        while (i < line.length() && line.charAt(i) >= '0' && line.charAt(i) <= '9') {
+            i++;
+        }
+        return i > 0 && isSeparatedAt(line, i) ? i + 1 : 0;
+    }
+
+    /**
+     * Get the length of a "12." or "12)" prefix in the answer key, where the answer may follow without a
+     * space as in "1.A".
+     *
+     * @return int prefix length including the separator, 0 if the line has no such prefix
+     */
+    static int answerPrefixLength(String line) {
+        int i = 0;
+        while (i < line.length() && line.charAt(i) >= '0' && line.charAt(i) <= '9') {
+            i++;
+        }
+        return i > 0 && i < line.length() && (line.charAt(i) == '.' || line.charAt(i) == ')') ? i + 1 : 0;
+    }
+
+    /**
+     * Get the position of an option line, "B. text" or "B) text" is 1.
+     *
+     * @return int option position 0 to 3, -1 if the line is not an option
+     */
+    static int optionIndex(String line) {
+        if (!isSeparatedAt(line, 1)) {
+            return -1;
+        }
+        char letter = line.charAt(0);
+        int index = LATIN_OPTIONS.indexOf(letter);
+        return index >= 0 ? index : CYRILLIC_OPTIONS.indexOf(letter);
+    }
+
+    /**
+     * Rewrite the separator ending at prefix to ". ", so "A) text" reads "A. text".
+     */
+    static String normalizeSeparator(String line, int prefix) {
+        if (line.charAt(prefix - 1) == '.' && line.charAt(prefix) == ' ') {
+            return line;
+        }
+        return line.substring(0, prefix - 1) + ". " + line.substring(prefix).strip();
+    }
+
+    private static boolean isSeparatedAt(String line, int i) {
+        return i + 1 < line.length()
+                && (line.charAt(i) == '.' || line.charAt(i) == ')')
+                && Character.isWhitespace(line.charAt(i + 1));
+    }
+
+    private static int skipMarkup(String line, int i) {
+        while (i < line.length() && (MARKUP.indexOf(line.charAt(i)) >= 0 || Character.isWhitespace(line.charAt(i)))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int parseNumber(String line, int prefix) {
+        try {
+            return Integer.parseInt(line, 0, prefix - 1, 10);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static QuizParseError incompleteQuestion(int line, int number) {
+        return error(QuizParseErrorType.INCOMPLETE_QUESTION, line, "question " + number);
+    }
+
+    private static QuizParseError error(QuizParseErrorType type, int line, String detail) {
+        return QuizParseError.builder()
+                .type(type)
+                .line(line)
+                .detail(detail)
+                .build();
+    }
+}
@@ -10,7 +10,8 @@ import lombok.*;
 /**
  * Recommended use for Quiz generation activities. Generated quizzes expect title, number of generated questions,
  * a prompt, and the required language of the generated quiz. The userId is an option, in the case of generating
- * quizzes for a specific user.
+ * quizzes for a specific user. Responses may be served from the semantic cache of similar requests, unless the
+ * request sets bypassCache.
  */
 @Getter
 @Setter
@@ -34,4 +35,6 @@ public class QuizRequest {
 
     @NotNull
     private Language language;
+
+    private boolean bypassCache;
 }
@@ -0,0 +1,94 @@
+package com.morris.quizly.models.quiz;
+
+import com.morris.quizly.models.locales.Language;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Incremental parser of a streamed quiz response. Tokens are fed in the order they arrive and are
+ * assembled into lines; each completed line advances the same question and option grammar as
+ * {@link QuizParser}, wrapped questions and options included. A {@link QuizlyQuestionGroup} is emitted as
+ * soon as the line of its fourth option is complete. Answers are only known once the answer key has
+ * streamed, so emitted groups carry none.
+ * <br><br>
+ * Instances hold the state of one stream and are not thread-safe.
+ */
+public class QuizStreamParser {
+
+    private final String answerKeyMarker;
+    private final StringBuilder line = new StringBuilder();
+    private String question;
+    private List<String> options = new ArrayList<>(QuizParser.OPTION_COUNT);
+    private boolean inAnswerKey;
+
+    public QuizStreamParser(Language language) {
+        this.answerKeyMarker = QuizParser.answerKeyMarker(language);
+    }
+
+    /**
+     * Feed the next token of the stream.
+     *
+     * @param token {@link String} streamed token
+     *
+     * @return {@link List<QuizlyQuestionGroup>} question groups completed by the token, usually none
+     */
+    public List<QuizlyQuestionGroup> accept(String token) {
+        List<QuizlyQuestionGroup> completed = new ArrayList<>(0);
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == '\n') {
+                completeLine(completed);
+            } else {
+                line.append(c);
+            }
+        }
+        return completed;
+    }
+
+    /**
+     * End the stream, completing its last line.
+     *
+     * @return {@link List<QuizlyQuestionGroup>} question groups completed by the last line
+     */
+    public List<QuizlyQuestionGroup> finish() {
+        List<QuizlyQuestionGroup> completed = new ArrayList<>(0);
+        completeLine(completed);
+        return completed;
+    }
+
+    private void completeLine(List<QuizlyQuestionGroup> completed) {
+        String text = line.toString().trim();
+        line.setLength(0);
+        if (text.isEmpty() || inAnswerKey) {
+            return;
+        }
+        if (QuizParser.answersStart(text, answerKeyMarker) >= 0) {
+            inAnswerKey = true;
+            return;
+        }
+        int prefix = QuizParser.numberPrefixLength(text);
+        if (prefix > 0) {
+            question = QuizParser.normalizeSeparator(text, prefix);
+            options.clear();
+            return;
+        }
+        if (null != question && QuizParser.optionIndex(text) == options.size()) {
+            options.add(QuizParser.normalizeSeparator(text, 2));
+            if (options.size() == QuizParser.OPTION_COUNT) {
+                completed.add(QuizlyQuestionGroup.builder()
+                        .question(question)
+                        .options(options)
+                        .build());
+                question = null;
+                options = new ArrayList<>(QuizParser.OPTION_COUNT);
+            }
+        } else if (null != question && options.isEmpty()) {
+            // a wrapped question
+            question = question + ' ' + text;
+        } else if (null != question) {
+            // a wrapped option
+            options.set(options.size() - 1, options.get(options.size() - 1) + ' ' + text);
+        }
+    }
+}
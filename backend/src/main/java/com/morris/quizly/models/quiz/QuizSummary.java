@@ -0,0 +1,37 @@
+package com.morris.quizly.models.quiz;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.morris.quizly.models.locales.Language;
+import lombok.*;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read model of a {@link Quiz} for quiz listings. It only carries what a quiz card displays, the
+ * questions, embeddings and binaries stay in the database and the thumbnail is linked by url.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuizSummary {
+
+    @Id
+    @JsonProperty("_id")
+    @JsonSerialize(using = ToStringSerializer.class)
+    private ObjectId id;
+    private String quizTitle;
+    private Language language;
+    private int questionCount;
+    private String thumbnailUrl;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdDate;
+}
@@ -0,0 +1,20 @@
+package com.morris.quizly.models.quiz;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * A page of {@link QuizSummary} documents read after a cursor. The nextCursor is an opaque token to
+ * pass back for the following page and is null once the last page has been reached.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class QuizSummaryCursorPage {
+    private List<QuizSummary> quizzes;
+    private String nextCursor;
+}
@@ -6,6 +6,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.*;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Getter
@@ -26,4 +27,18 @@ public class QuizlyQuestionGroup {
 
     @NotBlank
     private String answer;
+
+    /**
+     * Copy this question group, the options list included, so the copy can be saved and changed
+     * independently of the original.
+     *
+     * @return {@link QuizlyQuestionGroup} copy
+     */
+    public QuizlyQuestionGroup copy() {
+        return QuizlyQuestionGroup.builder()
+                .question(question)
+                .options(null != options ? new ArrayList<>(options) : null)
+                .answer(answer)
+                .build();
+    }
 }
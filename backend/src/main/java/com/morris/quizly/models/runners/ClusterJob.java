@@ -0,0 +1,51 @@
+package com.morris.quizly.models.runners;
+
+import java.time.Duration;
+
+/**
+ * A job that runs on one instance of the cluster at a time, coordinated through a {@link JobLease}.
+ * Job beans are picked up by the {@link ClusterJobScheduler}.
+ */
+public interface ClusterJob {
+
+    /**
+     * Get the job name, which is also the id of its lease.
+     *
+     * @return {@link String} job name
+     */
+    String getName();
+
+    /**
+     * Get the interval between runs.
+     *
+     * @return {@link Duration} interval, or null for a job that runs once per cluster, until it
+     * completes successfully
+     */
+    Duration getInterval();
+
+    /**
+     * Get how long a lease is held without renewal. The lease is renewed while the job runs, so this
+     * only bounds how long a crashed instance blocks the job.
+     *
+     * @return {@link Duration} lease duration
+     */
+    Duration getLeaseDuration();
+
+    /**
+     * Determines if the job is scheduled at all.
+     *
+     * @return boolean
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Runs the job while holding its lease.
+     *
+     * @param fencingToken long: increases with every lease acquisition, jobs check it with
+     *                     {@link com.morris.quizly.services.ClusterJobService#isLeaseHeld(String, long)}
+     *                     between batches and stop once another instance has taken over the lease
+     */
+    void execute(long fencingToken);
+}
@@ -0,0 +1,83 @@
+package com.morris.quizly.models.runners;
+
+import com.morris.quizly.models.security.ConfigurationComponent;
+import com.morris.quizly.services.ClusterJobService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Schedules every enabled {@link ClusterJob} once the application is ready. Each instance checks
+ * periodic jobs every poll interval plus a random jitter, so instances do not race for a lease at the
+ * same moment, and the lease makes sure only one of them runs the job per interval. One-shot jobs are
+ * polled the same way until a run has completed, so a failed run or a crashed lease holder is retried.
+ */
+@Component
+public class ClusterJobScheduler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClusterJobScheduler.class);
+
+    private final List<ClusterJob> clusterJobs;
+    private final ClusterJobService clusterJobService;
+    private final TaskScheduler taskScheduler;
+    private final ConfigurationComponent configurationComponent;
+
+    @Autowired
+    public ClusterJobScheduler(List<ClusterJob> clusterJobs, ClusterJobService clusterJobService,
+                               TaskScheduler taskScheduler, ConfigurationComponent configurationComponent) {
+        this.clusterJobs = clusterJobs;
+        this.clusterJobService = clusterJobService;
+        this.taskScheduler = taskScheduler;
+        this.configurationComponent = configurationComponent;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleJobs() {
+        clusterJobs.stream()
+                .filter(ClusterJob::isEnabled)
+                .forEach(job -> {
+                    LOGGER.info("Scheduling cluster job '{}'", job.getName());
+                    schedule(job, Duration.ZERO);
+                });
+    }
+
+    private void schedule(ClusterJob job, Duration delay) {
+        taskScheduler.schedule(() -> run(job), Instant.now().plus(delay).plus(jitter()));
+    }
+
+    private void run(ClusterJob job) {
+        try {
+            clusterJobService.runIfDue(job);
+        } catch (Exception e) {
+            LOGGER.error("Error running cluster job '{}': {}", job.getName(), e.getMessage());
+        }
+        Duration pollInterval = Duration.ofSeconds(configurationComponent.getClusterJobPollIntervalSeconds());
+        if (null != job.getInterval()) {
+            schedule(job, job.getInterval().compareTo(pollInterval) < 0 ? job.getInterval() : pollInterval);
+        } else if (!isCompleted(job)) {
+            schedule(job, pollInterval);
+        }
+    }
+
+    private boolean isCompleted(ClusterJob job) {
+        try {
+            return clusterJobService.isCompleted(job);
+        } catch (Exception e) {
+            LOGGER.error("Error reading state of cluster job '{}': {}", job.getName(), e.getMessage());
+            return false;
+        }
+    }
+
+    private Duration jitter() {
+        long maxJitterMs = configurationComponent.getClusterJobMaxJitterMs();
+        return Duration.ofMillis(maxJitterMs > 0 ? ThreadLocalRandom.current().nextLong(maxJitterMs) : 0);
+    }
+}
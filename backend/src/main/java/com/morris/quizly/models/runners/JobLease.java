@@ -0,0 +1,33 @@
+package com.morris.quizly.models.runners;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Lease and last run bookkeeping of a {@link ClusterJob}. The instance that holds an unexpired lease
+ * is the only one running the job, the fencing token identifies its lease. lastCompletedAt is only set
+ * by a successful run, once it is set a one-shot job is never run again.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document("job_leases")
+public class JobLease {
+
+    @Id
+    private String jobName;
+    private String owner;
+    private long fencingToken;
+    private Date leaseUntil;
+    private Date lastStartedAt;
+    private Date lastCompletedAt;
+    private Date lastFinishedAt;
+    private long lastDurationMs;
+    private String lastOutcome;
+}
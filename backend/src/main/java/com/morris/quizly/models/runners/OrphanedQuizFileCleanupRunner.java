@@ -0,0 +1,130 @@
+package com.morris.quizly.models.runners;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.morris.quizly.models.quiz.Quiz;
+import com.morris.quizly.models.security.ConfigurationComponent;
+import com.morris.quizly.services.ClusterJobService;
+import com.morris.quizly.services.QuizFileStorageService;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+
+import static com.mongodb.client.model.Filters.*;
+import static com.mongodb.client.model.Projections.include;
+
+/**
+ * Deletes quiz PDFs and thumbnails in GridFS that no quiz references, left behind when a quiz failed to
+ * save after its PDF was stored. File ids are ObjectIds created at upload, so each run scans the indexed
+ * id range of files stored within the lookback window. Files younger than the grace period are skipped,
+ * their quiz may still be saving. Enable with <b>quiz.files.cleanup.enabled</b>.
+ * Runs on a single instance of the cluster per interval, see {@link ClusterJobScheduler}, and stops when
+ * its lease is lost.
+ */
+@Component
+public class OrphanedQuizFileCleanupRunner implements ClusterJob {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrphanedQuizFileCleanupRunner.class);
+
+    private static final String _ID = "_id";
+    private static final String METADATA_QUIZ_ID = "metadata.quizId";
+    private static final String METADATA = "metadata";
+    private static final String QUIZ_ID = "quizId";
+    private static final String PDF_FILE_ID = "pdfFileId";
+    private static final String THUMBNAIL_FILE_ID = "thumbnailFileId";
+    private static final String FS_FILES = "fs.files";
+
+    private static final String JOB_NAME = "orphaned-quiz-file-cleanup";
+    private static final String LEASE_LOST = "Lease with fencing token %d lost after deleting %d files";
+    private static final Duration LEASE_DURATION = Duration.ofMinutes(5);
+
+    private static final int BATCH_SIZE = 100;
+
+    private final MongoTemplate mongoTemplate;
+    private final ClusterJobService clusterJobService;
+    private final QuizFileStorageService quizFileStorageService;
+    private final ConfigurationComponent configurationComponent;
+
+    @Autowired
+    public OrphanedQuizFileCleanupRunner(MongoTemplate mongoTemplate, ClusterJobService clusterJobService,
+                                         QuizFileStorageService quizFileStorageService,
+                                         ConfigurationComponent configurationComponent) {
+        this.mongoTemplate = mongoTemplate;
+        this.clusterJobService = clusterJobService;
+        this.quizFileStorageService = quizFileStorageService;
+        this.configurationComponent = configurationComponent;
+    }
+
+    @Override
+    public String getName() {
+        return JOB_NAME;
+    }
+
+    @Override
+    public Duration getInterval() {
+        return Duration.ofMinutes(configurationComponent.getQuizFileCleanupIntervalMinutes());
+    }
+
+    @Override
+    public Duration getLeaseDuration() {
+        return LEASE_DURATION;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return configurationComponent.isQuizFileCleanupEnabled();
+    }
+
+    @Override
+    public void execute(long fencingToken) {
+        long storedBefore = System.currentTimeMillis()
+                - Duration.ofMinutes(configurationComponent.getQuizFileCleanupGraceMinutes()).toMillis();
+        long storedAfter = storedBefore
+                - Duration.ofHours(configurationComponent.getQuizFileCleanupLookbackHours()).toMillis();
+
+        MongoCollection<Document> files = mongoTemplate.getCollection(FS_FILES);
+        MongoCollection<Document> quizzes = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Quiz.class));
+        int deleted = 0;
+        int read = 0;
+        try (MongoCursor<Document> cursor = files
+                .find(and(
+                        gte(_ID, new ObjectId(new Date(storedAfter))),
+                        lt(_ID, new ObjectId(new Date(storedBefore))),
+                        exists(METADATA_QUIZ_ID)
+                ))
+                .projection(include(METADATA_QUIZ_ID))
+                .batchSize(BATCH_SIZE)
+                .iterator()) {
+            while (cursor.hasNext()) {
+                Document file = cursor.next();
+                // stop once another instance has taken over the lease, checked once per batch
+                if (++read % BATCH_SIZE == 0 && !clusterJobService.isLeaseHeld(JOB_NAME, fencingToken)) {
+                    throw new IllegalStateException(String.format(LEASE_LOST, fencingToken, deleted));
+                }
+                ObjectId fileId = file.getObjectId(_ID);
+                try {
+                    Object quizId = file.get(METADATA, Document.class).get(QUIZ_ID);
+                    boolean referenced = null != quizzes
+                            .find(and(eq(_ID, quizId), or(eq(PDF_FILE_ID, fileId), eq(THUMBNAIL_FILE_ID, fileId))))
+                            .projection(include(_ID))
+                            .first();
+                    if (!referenced) {
+                        quizFileStorageService.deleteFile(fileId);
+                        deleted++;
+                    }
+                } catch (Exception e) {
+                    LOGGER.error("Error cleaning up quiz file '{}': {}", fileId, e.getMessage());
+                }
+            }
+        }
+        if (deleted > 0) {
+            LOGGER.info("Deleted {} orphaned quiz files", deleted);
+        }
+    }
+}
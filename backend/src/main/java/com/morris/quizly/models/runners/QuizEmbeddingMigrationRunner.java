@@ -0,0 +1,110 @@
+package com.morris.quizly.models.runners;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.morris.quizly.models.quiz.Quiz;
+import com.morris.quizly.models.security.ConfigurationComponent;
+import com.morris.quizly.services.ClusterJobService;
+import com.morris.quizly.utils.VectorUtil;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.mongodb.client.model.Filters.*;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Updates.set;
+import static com.mongodb.client.model.Updates.unset;
+
+/**
+ * Rewrites quiz embeddings stored as arrays of doubles into float32 binary vectors. Each update only
+ * applies while the field is still an array, so the migration can be interrupted and re-run safely.
+ * Enable with <b>quiz.migration.embeddings.enabled</b>.
+ * Runs on a single instance of the cluster after startup, see {@link ClusterJobScheduler}, and stops
+ * when its lease is lost.
+ */
+@Component
+public class QuizEmbeddingMigrationRunner implements ClusterJob {
+    private static final Logger LOGGER = LoggerFactory.getLogger(QuizEmbeddingMigrationRunner.class);
+
+    private static final String _ID = "_id";
+    private static final String PDF_EMBEDDINGS = "pdfEmbeddings";
+
+    private static final String JOB_NAME = "quiz-embedding-migration";
+    private static final String LEASE_LOST = "Lease with fencing token %d lost after migrating %d documents";
+    private static final Duration LEASE_DURATION = Duration.ofMinutes(5);
+
+    private static final int BATCH_SIZE = 100;
+
+    private final MongoTemplate mongoTemplate;
+    private final ClusterJobService clusterJobService;
+    private final ConfigurationComponent configurationComponent;
+
+    @Autowired
+    public QuizEmbeddingMigrationRunner(MongoTemplate mongoTemplate, ClusterJobService clusterJobService,
+                                        ConfigurationComponent configurationComponent) {
+        this.mongoTemplate = mongoTemplate;
+        this.clusterJobService = clusterJobService;
+        this.configurationComponent = configurationComponent;
+    }
+
+    @Override
+    public String getName() {
+        return JOB_NAME;
+    }
+
+    @Override
+    public Duration getInterval() {
+        return null;
+    }
+
+    @Override
+    public Duration getLeaseDuration() {
+        return LEASE_DURATION;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return configurationComponent.isQuizEmbeddingMigrationEnabled();
+    }
+
+    @Override
+    public void execute(long fencingToken) {
+        MongoCollection<Document> quizzes = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Quiz.class));
+        int migrated = 0;
+        int read = 0;
+        try (MongoCursor<Document> cursor = quizzes
+                .find(type(PDF_EMBEDDINGS, BsonType.ARRAY))
+                .projection(include(PDF_EMBEDDINGS))
+                .batchSize(BATCH_SIZE)
+                .iterator()) {
+            while (cursor.hasNext()) {
+                Document quiz = cursor.next();
+                // stop once another instance has taken over the lease, checked once per batch
+                if (++read % BATCH_SIZE == 0 && !clusterJobService.isLeaseHeld(JOB_NAME, fencingToken)) {
+                    throw new IllegalStateException(String.format(LEASE_LOST, fencingToken, migrated));
+                }
+                try {
+                    List<?> embeddings = quiz.getList(PDF_EMBEDDINGS, Object.class);
+                    // an empty array was written when embedding failed, such quizzes have no vector
+                    quizzes.updateOne(
+                            and(eq(_ID, quiz.get(_ID)), type(PDF_EMBEDDINGS, BsonType.ARRAY)),
+                            embeddings.isEmpty()
+                                    ? unset(PDF_EMBEDDINGS)
+                                    : set(PDF_EMBEDDINGS, VectorUtil.toBinaryVector(VectorUtil.fromList(embeddings)))
+                    );
+                    migrated++;
+                } catch (Exception e) {
+                    LOGGER.error("Error migrating embeddings of quiz '{}': {}", quiz.get(_ID), e.getMessage());
+                }
+            }
+        }
+        LOGGER.info("Migrated embeddings of {} quizzes to binary vectors", migrated);
+    }
+}
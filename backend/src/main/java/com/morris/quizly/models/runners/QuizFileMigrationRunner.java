@@ -0,0 +1,162 @@
+package com.morris.quizly.models.runners;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.result.UpdateResult;
+import com.morris.quizly.models.quiz.Quiz;
+import com.morris.quizly.models.security.ConfigurationComponent;
+import com.morris.quizly.services.ClusterJobService;
+import com.morris.quizly.services.QuizFileStorageService;
+import com.morris.quizly.utils.FileUtil;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+import static com.mongodb.client.model.Filters.*;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Updates.*;
+
+/**
+ * Moves PDFs and thumbnails that are still embedded in quiz documents into GridFS. Quizzes are
+ * migrated one at a time, each update only applies while the inline field is still present, so
+ * the migration can be interrupted and re-run safely. Enable with <b>quiz.migration.files.enabled</b>.
+ * Runs on a single instance of the cluster after startup, see {@link ClusterJobScheduler}, and stops
+ * when its lease is lost.
+ */
+@Component
+public class QuizFileMigrationRunner implements ClusterJob {
+    private static final Logger LOGGER = LoggerFactory.getLogger(QuizFileMigrationRunner.class);
+
+    private static final String _ID = "_id";
+    private static final String PDF_FILE_ID = "pdfFileId";
+    private static final String THUMBNAIL_FILE_ID = "thumbnailFileId";
+    private static final String PDF_CONTENT = "pdfContent";
+    private static final String PDF_IMAGE = "pdfImage";
+    private static final String THUMBNAIL = "thumbnail";
+    private static final String THUMBNAIL_CONTENT_TYPE = "thumbnailContentType";
+
+    private static final String JOB_NAME = "quiz-file-migration";
+    private static final String LEASE_LOST = "Lease with fencing token %d lost after migrating %d documents";
+    private static final Duration LEASE_DURATION = Duration.ofMinutes(5);
+
+    private static final int BATCH_SIZE = 10;
+
+    private final MongoTemplate mongoTemplate;
+    private final ClusterJobService clusterJobService;
+    private final QuizFileStorageService quizFileStorageService;
+    private final ConfigurationComponent configurationComponent;
+
+    @Autowired
+    public QuizFileMigrationRunner(MongoTemplate mongoTemplate, ClusterJobService clusterJobService,
+                                   QuizFileStorageService quizFileStorageService,
+                                   ConfigurationComponent configurationComponent) {
+        this.mongoTemplate = mongoTemplate;
+        this.clusterJobService = clusterJobService;
+        this.quizFileStorageService = quizFileStorageService;
+        this.configurationComponent = configurationComponent;
+    }
+
+    @Override
+    public String getName() {
+        return JOB_NAME;
+    }
+
+    @Override
+    public Duration getInterval() {
+        return null;
+    }
+
+    @Override
+    public Duration getLeaseDuration() {
+        return LEASE_DURATION;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return configurationComponent.isQuizFileMigrationEnabled();
+    }
+
+    @Override
+    public void execute(long fencingToken) {
+        MongoCollection<Document> quizzes = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Quiz.class));
+        int migrated = 0;
+        int read = 0;
+        try (MongoCursor<Document> cursor = quizzes
+                .find(or(exists(PDF_CONTENT), exists(THUMBNAIL), exists(PDF_IMAGE)))
+                .projection(include(PDF_CONTENT, THUMBNAIL, THUMBNAIL_CONTENT_TYPE, PDF_IMAGE))
+                .batchSize(BATCH_SIZE)
+                .iterator()) {
+            while (cursor.hasNext()) {
+                Document quiz = cursor.next();
+                // stop once another instance has taken over the lease, checked once per batch
+                if (++read % BATCH_SIZE == 0 && !clusterJobService.isLeaseHeld(JOB_NAME, fencingToken)) {
+                    throw new IllegalStateException(String.format(LEASE_LOST, fencingToken, migrated));
+                }
+                try {
+                    migratePdf(quizzes, quiz);
+                    migrateThumbnail(quizzes, quiz);
+                    migrated++;
+                } catch (Exception e) {
+                    LOGGER.error("Error migrating files of quiz '{}': {}", quiz.get(_ID), e.getMessage());
+                }
+            }
+        }
+        LOGGER.info("Migrated files of {} quizzes to GridFS", migrated);
+    }
+
+    private void migratePdf(MongoCollection<Document> quizzes, Document quiz) {
+        Binary pdfContent = quiz.get(PDF_CONTENT, Binary.class);
+        if (null == pdfContent) {
+            return;
+        }
+        ObjectId quizId = quiz.getObjectId(_ID);
+        ObjectId pdfFileId = quizFileStorageService.storeQuizPdf(quizId, pdfContent.getData());
+        UpdateResult result = quizzes.updateOne(
+                and(eq(_ID, quizId), exists(PDF_CONTENT)),
+                combine(set(PDF_FILE_ID, pdfFileId), unset(PDF_CONTENT))
+        );
+        if (result.getModifiedCount() == 0) {
+            // migrated concurrently, drop our copy
+            quizFileStorageService.deleteFile(pdfFileId);
+        }
+    }
+
+    private void migrateThumbnail(MongoCollection<Document> quizzes, Document quiz) {
+        byte[] data = null;
+        String contentType = null;
+
+        Binary thumbnail = quiz.get(THUMBNAIL, Binary.class);
+        String pdfImage = quiz.getString(PDF_IMAGE);
+        if (null != thumbnail) {
+            data = thumbnail.getData();
+            contentType = quiz.getString(THUMBNAIL_CONTENT_TYPE);
+        } else if (null != pdfImage) {
+            data = FileUtil.base64DecodeDataUri(pdfImage);
+            contentType = FileUtil.dataUriContentType(pdfImage);
+        }
+        if (null == data) {
+            return;
+        }
+        ObjectId quizId = quiz.getObjectId(_ID);
+        ObjectId thumbnailFileId = quizFileStorageService.storeQuizThumbnail(
+                quizId,
+                data,
+                null != contentType ? contentType : MediaType.IMAGE_PNG_VALUE
+        );
+        UpdateResult result = quizzes.updateOne(
+                and(eq(_ID, quizId), or(exists(THUMBNAIL), exists(PDF_IMAGE))),
+                combine(set(THUMBNAIL_FILE_ID, thumbnailFileId), unset(THUMBNAIL), unset(THUMBNAIL_CONTENT_TYPE), unset(PDF_IMAGE))
+        );
+        if (result.getModifiedCount() == 0) {
+            quizFileStorageService.deleteFile(thumbnailFileId);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.morris.quizly.models.runners;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.morris.quizly.models.security.ConfigurationComponent;
+import com.morris.quizly.models.security.UserDetails;
+import com.morris.quizly.services.ClusterJobService;
+import com.morris.quizly.services.PrincipalCacheService;
+import com.morris.quizly.services.UserAvatarService;
+import com.morris.quizly.utils.FileUtil;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+
+import static com.mongodb.client.model.Filters.*;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Updates.*;
+
+/**
+ * Moves avatars stored on user documents as base64 data-URIs into the user_avatars collection,
+ * resized like new uploads. Each update only applies while the inline image is still present, so the
+ * migration can be interrupted and re-run safely. Images that cannot be decoded are dropped.
+ * Enable with <b>user.migration.avatars.enabled</b>.
+ * Runs on a single instance of the cluster after startup, see {@link ClusterJobScheduler}, and stops
+ * when its lease is lost.
+ */
+@Component
+public class UserAvatarMigrationRunner implements ClusterJob {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserAvatarMigrationRunner.class);
+
+    private static final String _ID = "_id";
+    private static final String USERNAME = "username";
+    private static final String AVATAR_ID = "avatarId";
+    // user documents written before avatars moved to user_avatars
+    private static final String LEGACY_IMAGE = "image";
+
+    private static final String JOB_NAME = "user-avatar-migration";
+    private static final String LEASE_LOST = "Lease with fencing token %d lost after migrating %d documents";
+    private static final Duration LEASE_DURATION = Duration.ofMinutes(5);
+
+    private static final int BATCH_SIZE = 10;
+
+    private final MongoTemplate mongoTemplate;
+    private final ClusterJobService clusterJobService;
+    private final UserAvatarService userAvatarService;
+    private final PrincipalCacheService principalCacheService;
+    private final ConfigurationComponent configurationComponent;
+
+    @Autowired
+    public UserAvatarMigrationRunner(MongoTemplate mongoTemplate, ClusterJobService clusterJobService,
+                                     UserAvatarService userAvatarService,
+                                     PrincipalCacheService principalCacheService,
+                                     ConfigurationComponent configurationComponent) {
+        this.mongoTemplate = mongoTemplate;
+        this.clusterJobService = clusterJobService;
+        this.userAvatarService = userAvatarService;
+        this.principalCacheService = principalCacheService;
+        this.configurationComponent = configurationComponent;
+    }
+
+    @Override
+    public String getName() {
+        return JOB_NAME;
+    }
+
+    @Override
+    public Duration getInterval() {
+        return null;
+    }
+
+    @Override
+    public Duration getLeaseDuration() {
+        return LEASE_DURATION;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return configurationComponent.isUserAvatarMigrationEnabled();
+    }
+
+    @Override
+    public void execute(long fencingToken) {
+        MongoCollection<Document> users = mongoTemplate.getCollection(mongoTemplate.getCollectionName(UserDetails.class));
+        int migrated = 0;
+        int read = 0;
+        try (MongoCursor<Document> cursor = users
+                .find(exists(LEGACY_IMAGE))
+                .projection(include(USERNAME, LEGACY_IMAGE))
+                .batchSize(BATCH_SIZE)
+                .iterator()) {
+            while (cursor.hasNext()) {
+                Document user = cursor.next();
+                // stop once another instance has taken over the lease, checked once per batch
+                if (++read % BATCH_SIZE == 0 && !clusterJobService.isLeaseHeld(JOB_NAME, fencingToken)) {
+                    throw new IllegalStateException(String.format(LEASE_LOST, fencingToken, migrated));
+                }
+                ObjectId userId = user.getObjectId(_ID);
+                try {
+                    String image = user.getString(LEGACY_IMAGE);
+                    ObjectId avatarId = null != image
+                            ? userAvatarService.storeAvatar(userId, new ByteArrayInputStream(FileUtil.base64DecodeDataUri(image)))
+                            : null;
+                    long modified = users.updateOne(
+                            and(eq(_ID, userId), exists(LEGACY_IMAGE)),
+                            null != avatarId ? combine(set(AVATAR_ID, avatarId), unset(LEGACY_IMAGE)) : unset(LEGACY_IMAGE)
+                    ).getModifiedCount();
+                    if (modified == 0 && null != avatarId) {
+                        userAvatarService.deleteAvatar(avatarId);
+                        continue;
+                    }
+                    principalCacheService.invalidate(user.getString(USERNAME));
+                    migrated++;
+                } catch (Exception e) {
+                    LOGGER.error("Error migrating avatar of user '{}': {}", userId, e.getMessage());
+                }
+            }
+        }
+        LOGGER.info("Migrated avatars of {} users to user_avatars", migrated);
+    }
+}
@@ -0,0 +1,144 @@
+package com.morris.quizly.models.runners;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import com.morris.quizly.models.security.ConfigurationComponent;
+import com.morris.quizly.models.security.UserDetails;
+import com.morris.quizly.models.security.VerificationToken;
+import com.morris.quizly.models.security.VerificationTokenType;
+import com.morris.quizly.services.ClusterJobService;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.client.model.Filters.*;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Updates.combine;
+import static com.mongodb.client.model.Updates.unset;
+
+/**
+ * Moves signup and password reset tokens stored on user documents into the verification_tokens
+ * collection. Tokens are upserted by value and removed from the user afterwards, so the migration
+ * can be interrupted and re-run safely. Confirmed users and expired reset tokens are only cleaned up.
+ * Enable with <b>security.migration.verification-tokens.enabled</b>.
+ * Runs on a single instance of the cluster after startup, see {@link ClusterJobScheduler}, and stops
+ * when its lease is lost.
+ */
+@Component
+public class VerificationTokenMigrationRunner implements ClusterJob {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VerificationTokenMigrationRunner.class);
+
+    private static final String _ID = "_id";
+    private static final String ENABLED = "enabled";
+    private static final String SIGNUP_TOKEN = "signupToken";
+    private static final String PASSWORD_RESET_TOKEN = "passwordResetToken";
+    private static final String PASSWORD_RESET_TOKEN_EXPIRY = "passwordResetTokenExpiry";
+    private static final String TOKEN = "token";
+    private static final String TYPE = "type";
+    private static final String USER_ID = "userId";
+    private static final String CREATED_DATE = "createdDate";
+    private static final String EXPIRES_AT = "expiresAt";
+
+    private static final String JOB_NAME = "verification-token-migration";
+    private static final String LEASE_LOST = "Lease with fencing token %d lost after migrating %d documents";
+    private static final Duration LEASE_DURATION = Duration.ofMinutes(5);
+
+    private static final int BATCH_SIZE = 100;
+
+    private final MongoTemplate mongoTemplate;
+    private final ClusterJobService clusterJobService;
+    private final ConfigurationComponent configurationComponent;
+
+    @Autowired
+    public VerificationTokenMigrationRunner(MongoTemplate mongoTemplate, ClusterJobService clusterJobService,
+                                            ConfigurationComponent configurationComponent) {
+        this.mongoTemplate = mongoTemplate;
+        this.clusterJobService = clusterJobService;
+        this.configurationComponent = configurationComponent;
+    }
+
+    @Override
+    public String getName() {
+        return JOB_NAME;
+    }
+
+    @Override
+    public Duration getInterval() {
+        return null;
+    }
+
+    @Override
+    public Duration getLeaseDuration() {
+        return LEASE_DURATION;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return configurationComponent.isVerificationTokenMigrationEnabled();
+    }
+
+    @Override
+    public void execute(long fencingToken) {
+        MongoCollection<Document> users = mongoTemplate.getCollection(mongoTemplate.getCollectionName(UserDetails.class));
+        int migrated = 0;
+        int read = 0;
+        try (MongoCursor<Document> cursor = users
+                .find(or(exists(SIGNUP_TOKEN), exists(PASSWORD_RESET_TOKEN), exists(PASSWORD_RESET_TOKEN_EXPIRY)))
+                .projection(include(ENABLED, SIGNUP_TOKEN, PASSWORD_RESET_TOKEN, PASSWORD_RESET_TOKEN_EXPIRY))
+                .batchSize(BATCH_SIZE)
+                .iterator()) {
+            while (cursor.hasNext()) {
+                Document user = cursor.next();
+                // stop once another instance has taken over the lease, checked once per batch
+                if (++read % BATCH_SIZE == 0 && !clusterJobService.isLeaseHeld(JOB_NAME, fencingToken)) {
+                    throw new IllegalStateException(String.format(LEASE_LOST, fencingToken, migrated));
+                }
+                try {
+                    ObjectId userId = user.getObjectId(_ID);
+                    Date now = new Date();
+
+                    String signupToken = user.getString(SIGNUP_TOKEN);
+                    if (null != signupToken && !user.getBoolean(ENABLED, false)) {
+                        Date expiresAt = new Date(now.getTime()
+                                + TimeUnit.HOURS.toMillis(configurationComponent.getSignupTokenTtlHours()));
+                        upsertToken(signupToken, VerificationTokenType.SIGNUP, userId, now, expiresAt);
+                    }
+                    String passwordResetToken = user.getString(PASSWORD_RESET_TOKEN);
+                    Date passwordResetTokenExpiry = user.getDate(PASSWORD_RESET_TOKEN_EXPIRY);
+                    if (null != passwordResetToken && null != passwordResetTokenExpiry && passwordResetTokenExpiry.after(now)) {
+                        upsertToken(passwordResetToken, VerificationTokenType.PASSWORD_RESET, userId, now, passwordResetTokenExpiry);
+                    }
+                    users.updateOne(eq(_ID, userId),
+                            combine(unset(SIGNUP_TOKEN), unset(PASSWORD_RESET_TOKEN), unset(PASSWORD_RESET_TOKEN_EXPIRY)));
+                    migrated++;
+                } catch (Exception e) {
+                    LOGGER.error("Error migrating tokens of user '{}': {}", user.get(_ID), e.getMessage());
+                }
+            }
+        }
+        LOGGER.info("Migrated tokens of {} users to verification tokens", migrated);
+    }
+
+    private void upsertToken(String token, VerificationTokenType type, ObjectId userId, Date createdDate, Date expiresAt) {
+        mongoTemplate.upsert(
+                new Query(Criteria.where(TOKEN).is(token)),
+                new Update()
+                        .setOnInsert(TYPE, type)
+                        .setOnInsert(USER_ID, userId)
+                        .setOnInsert(CREATED_DATE, createdDate)
+                        .setOnInsert(EXPIRES_AT, expiresAt),
+                VerificationToken.class
+        );
+    }
+}
@@ -0,0 +1,35 @@
+package com.morris.quizly.models.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * {@link DaoAuthenticationProvider} for a {@link BoundedPasswordEncoder}. After a password matched, the
+ * provider hashes it again when its encoding needs an upgrade. If the hashing executor rejects that
+ * rehash the upgrade is skipped and the login still succeeds. It is retried on a later login.
+ */
+public class BoundedDaoAuthenticationProvider extends DaoAuthenticationProvider {
+    private static final Logger LOGGER = LoggerFactory.getLogger(BoundedDaoAuthenticationProvider.class);
+
+    public BoundedDaoAuthenticationProvider(PasswordEncoder passwordEncoder) {
+        super(passwordEncoder);
+    }
+
+    @Override
+    protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+                                                         org.springframework.security.core.userdetails.UserDetails user) {
+        try {
+            return super.createSuccessAuthentication(principal, authentication, user);
+        } catch (PasswordHashingRejectedException e) {
+            LOGGER.warn("Skipped upgrading password encoding of user '{}': {}", user.getUsername(), e.getMessage());
+            UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                    principal, authentication.getCredentials(), user.getAuthorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+    }
+}
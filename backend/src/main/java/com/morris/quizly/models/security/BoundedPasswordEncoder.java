@@ -0,0 +1,85 @@
+package com.morris.quizly.models.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs the hashing of a delegate {@link PasswordEncoder} on a bounded executor. Request threads wait
+ * for the result without burning CPU, so at most pool size hashes run at once no matter how many
+ * logins arrive, and once the queue is full new hashing is rejected with a
+ * {@link PasswordHashingRejectedException} instead of piling up.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final String HASH_TIMER = "quizly.password.hash";
+    private static final String QUEUE_WAIT_TIMER = "quizly.password.queue.wait";
+    private static final String OPERATION = "operation";
+
+    private final PasswordEncoder delegate;
+    private final AsyncTaskExecutor executor;
+    private final long retryAfterSeconds;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Timer queueWaitTimer;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, AsyncTaskExecutor executor, long retryAfterSeconds,
+                                  MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.encodeTimer = Timer.builder(HASH_TIMER).tag(OPERATION, "encode").register(meterRegistry);
+        this.matchesTimer = Timer.builder(HASH_TIMER).tag(OPERATION, "matches").register(meterRegistry);
+        this.queueWaitTimer = Timer.builder(QUEUE_WAIT_TIMER).register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hash(encodeTimer, () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return hash(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Only reads the cost factor of the hash, so it runs on the calling thread.
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T hash(Timer timer, Supplier<T> operation) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWaitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return timer.record(operation);
+            });
+        } catch (RejectedExecutionException e) {
+            throw new PasswordHashingRejectedException(retryAfterSeconds);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
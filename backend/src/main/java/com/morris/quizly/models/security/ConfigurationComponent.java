@@ -1,5 +1,6 @@
 package com.morris.quizly.models.security;
 
+import com.morris.quizly.models.pdf.ThumbnailFormat;
 import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
@@ -32,9 +33,171 @@ public class ConfigurationComponent {
     @Value("${security.jwt.token.expire-length}")
     private long jwtExpireLength;
 
+    @Value("${security.jwt.stateless}")
+    private boolean jwtStateless;
+
+    @Value("${security.jwt.revocation.refresh-ms}")
+    private long jwtRevocationRefreshMs;
+
+    @Value("${security.password.bcrypt-strength}")
+    private int passwordBcryptStrength;
+
+    @Value("${security.password.pool-size}")
+    private int passwordHashingPoolSize;
+
+    @Value("${security.password.queue-capacity}")
+    private int passwordHashingQueueCapacity;
+
+    @Value("${security.password.retry-after-seconds}")
+    private long passwordHashingRetryAfterSeconds;
+
+    @Value("${security.rate-limit.enabled}")
+    private boolean rateLimitEnabled;
+
+    @Value("${security.rate-limit.max-keys}")
+    private long rateLimitMaxKeys;
+
+    @Value("${security.rate-limit.quiz-generation.capacity}")
+    private int rateLimitQuizGenerationCapacity;
+
+    @Value("${security.rate-limit.quiz-generation.ip-capacity}")
+    private int rateLimitQuizGenerationIpCapacity;
+
+    @Value("${security.rate-limit.quiz-generation.refill-period-seconds}")
+    private long rateLimitQuizGenerationRefillPeriodSeconds;
+
+    @Value("${security.rate-limit.auth.capacity}")
+    private int rateLimitAuthCapacity;
+
+    @Value("${security.rate-limit.auth.ip-capacity}")
+    private int rateLimitAuthIpCapacity;
+
+    @Value("${security.rate-limit.auth.refill-period-seconds}")
+    private long rateLimitAuthRefillPeriodSeconds;
+
+    @Value("${security.signup-token.ttl-hours}")
+    private long signupTokenTtlHours;
+
+    @Value("${security.password-reset-token.ttl-minutes}")
+    private long passwordResetTokenTtlMinutes;
+
+    @Value("${security.migration.verification-tokens.enabled}")
+    private boolean verificationTokenMigrationEnabled;
+
+    @Value("${cluster.jobs.poll-interval-seconds}")
+    private long clusterJobPollIntervalSeconds;
+
+    @Value("${cluster.jobs.max-jitter-ms}")
+    private long clusterJobMaxJitterMs;
+
+    @Value("${user.avatar.max-size}")
+    private int userAvatarMaxSize;
+
+    @Value("${user.avatar.jpeg-quality}")
+    private float userAvatarJpegQuality;
+
+    @Value("${user.avatar.max-source-pixels}")
+    private long userAvatarMaxSourcePixels;
+
+    @Value("${user.migration.avatars.enabled}")
+    private boolean userAvatarMigrationEnabled;
+
+    @Value("${security.principal-cache.max-size}")
+    private long principalCacheMaxSize;
+
+    @Value("${security.principal-cache.ttl-seconds}")
+    private long principalCacheTtlSeconds;
+
     @Value("${openai.api.key}")
     private String openAiApiKey;
 
+    @Value("${openai.chat.timeout-seconds}")
+    private long openAiChatTimeoutSeconds;
+
+    @Value("${openai.chat.max-retries}")
+    private int openAiChatMaxRetries;
+
+    @Value("${openai.embedding.timeout-seconds}")
+    private long openAiEmbeddingTimeoutSeconds;
+
+    @Value("${openai.embedding.max-retries}")
+    private int openAiEmbeddingMaxRetries;
+
+    @Value("${openai.embedding.cache.max-bytes}")
+    private long embeddingCacheMaxBytes;
+
+    @Value("${openai.embedding.cache.mongo.enabled}")
+    private boolean embeddingCacheMongoEnabled;
+
+    @Value("${openai.embedding.cache.mongo.ttl-days}")
+    private long embeddingCacheMongoTtlDays;
+
+    @Value("${quiz.pipeline.pool-size}")
+    private int quizPipelinePoolSize;
+
+    @Value("${quiz.pipeline.queue-capacity}")
+    private int quizPipelineQueueCapacity;
+
+    @Value("${quiz.pipeline.embedding-timeout-ms}")
+    private long quizPipelineEmbeddingTimeoutMs;
+
+    @Value("${quiz.stream.timeout-ms}")
+    private long quizStreamTimeoutMs;
+
+    @Value("${quiz.stream.completion.pool-size}")
+    private int quizStreamCompletionPoolSize;
+
+    @Value("${quiz.stream.completion.queue-capacity}")
+    private int quizStreamCompletionQueueCapacity;
+
+    @Value("${quiz.semantic-cache.enabled}")
+    private boolean semanticCacheEnabled;
+
+    @Value("${quiz.semantic-cache.max-size}")
+    private long semanticCacheMaxSize;
+
+    @Value("${quiz.semantic-cache.ttl-minutes}")
+    private long semanticCacheTtlMinutes;
+
+    @Value("${quiz.semantic-cache.similarity-threshold}")
+    private double semanticCacheSimilarityThreshold;
+
+    @Value("${quiz.pdf.font-pool-size}")
+    private int quizPdfFontPoolSize;
+
+    @Value("${quiz.thumbnail.format}")
+    private ThumbnailFormat quizThumbnailFormat;
+
+    @Value("${quiz.thumbnail.dpi}")
+    private float quizThumbnailDpi;
+
+    @Value("${quiz.thumbnail.max-width}")
+    private int quizThumbnailMaxWidth;
+
+    @Value("${quiz.thumbnail.jpeg-quality}")
+    private float quizThumbnailJpegQuality;
+
+    @Value("${quiz.thumbnail.png-compression-quality}")
+    private float quizThumbnailPngCompressionQuality;
+
+    @Value("${quiz.migration.files.enabled}")
+    private boolean quizFileMigrationEnabled;
+
+    @Value("${quiz.migration.embeddings.enabled}")
+    private boolean quizEmbeddingMigrationEnabled;
+
+    @Value("${quiz.files.cleanup.enabled}")
+    private boolean quizFileCleanupEnabled;
+
+    @Value("${quiz.files.cleanup.interval-minutes}")
+    private long quizFileCleanupIntervalMinutes;
+
+    @Value("${quiz.files.cleanup.grace-minutes}")
+    private long quizFileCleanupGraceMinutes;
+
+    @Value("${quiz.files.cleanup.lookback-hours}")
+    private long quizFileCleanupLookbackHours;
+
     @Value("${recaptcha.site-key}")
     private String recaptchaSiteKey;
 
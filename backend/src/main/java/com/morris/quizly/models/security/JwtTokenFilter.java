@@ -1,6 +1,7 @@
 package com.morris.quizly.models.security;
 
-import com.morris.quizly.services.QuizlyUserDetailsService;
+import com.morris.quizly.services.PrincipalCacheService;
+import com.morris.quizly.services.TokenRevocationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -10,24 +11,38 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 @Component
 public class JwtTokenFilter extends OncePerRequestFilter {
     private static final Logger LOGGER = LoggerFactory.getLogger(JwtTokenFilter.class);
 
+    /**
+     * Request attribute holding the id of the authenticated user, see {@link RateLimitFilter}.
+     */
+    public static final String USER_ID_ATTRIBUTE = JwtTokenFilter.class.getName() + ".userId";
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
     private final JwtTokenProvider jwtTokenProvider;
-    private final QuizlyUserDetailsService quizlyUserDetailsService;
+    private final PrincipalCacheService principalCacheService;
+    private final TokenRevocationService tokenRevocationService;
+    private final ConfigurationComponent configurationComponent;
 
     @Autowired
-    public JwtTokenFilter(JwtTokenProvider jwtTokenProvider, QuizlyUserDetailsService quizlyUserDetailsService) {
+    public JwtTokenFilter(JwtTokenProvider jwtTokenProvider, PrincipalCacheService principalCacheService,
+                          TokenRevocationService tokenRevocationService, ConfigurationComponent configurationComponent) {
         this.jwtTokenProvider = jwtTokenProvider;
-        this.quizlyUserDetailsService = quizlyUserDetailsService;
+        this.principalCacheService = principalCacheService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.configurationComponent = configurationComponent;
     }
 
     @Override
@@ -35,13 +50,18 @@ public class JwtTokenFilter extends OncePerRequestFilter {
                                     @NotNull FilterChain filterChain) throws ServletException, IOException {
         String token = jwtTokenProvider.resolveToken(request);
         try {
-            if (token != null && jwtTokenProvider.validateToken(token)) {
-                String emailAddress = jwtTokenProvider.getUsername(token);
-                org.springframework.security.core.userdetails.UserDetails userDetails = quizlyUserDetailsService.loadUserByUsername(emailAddress);
-                if (userDetails != null) {
-                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            VerifiedToken verifiedToken = token != null ? jwtTokenProvider.parse(token) : null;
+            if (verifiedToken != null && !tokenRevocationService.isRevoked(verifiedToken)) {
+                UsernamePasswordAuthenticationToken authentication = configurationComponent.isJwtStateless()
+                        ? statelessAuthentication(verifiedToken)
+                        : principalAuthentication(verifiedToken);
+                if (authentication != null) {
                     authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authentication);
+                    String userId = userId(verifiedToken, authentication);
+                    if (userId != null) {
+                        request.setAttribute(USER_ID_ATTRIBUTE, userId);
+                    }
                 }
             }
         } catch (Exception e) {
@@ -49,4 +69,33 @@ public class JwtTokenFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Authorizes from the verified role claims alone, the user is not loaded.
+     */
+    private UsernamePasswordAuthenticationToken statelessAuthentication(VerifiedToken verifiedToken) {
+        List<SimpleGrantedAuthority> authorities = verifiedToken.getRoles().stream()
+                .map(role -> new SimpleGrantedAuthority(ROLE_PREFIX + role))
+                .toList();
+        return new UsernamePasswordAuthenticationToken(verifiedToken.getUsername(), null, authorities);
+    }
+
+    /**
+     * The user id is read from the loaded principal, or from the token claim when authorization is
+     * stateless. Tokens issued before the claim was added carry no user id.
+     */
+    private String userId(VerifiedToken verifiedToken, UsernamePasswordAuthenticationToken authentication) {
+        if (authentication.getPrincipal() instanceof UserDetails userDetails && userDetails.getId() != null) {
+            return userDetails.getId().toHexString();
+        }
+        return verifiedToken.getUserId();
+    }
+
+    private UsernamePasswordAuthenticationToken principalAuthentication(VerifiedToken verifiedToken) {
+        org.springframework.security.core.userdetails.UserDetails userDetails = principalCacheService.getPrincipal(verifiedToken.getUsername());
+        if (userDetails == null) {
+            return null;
+        }
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
 }
@@ -20,10 +20,14 @@ import java.util.Map;
 public class JwtTokenProvider {
     private static final Logger LOGGER = LoggerFactory.getLogger(JwtTokenProvider.class);
 
+    private static final String ROLES = "roles";
+    private static final String USER_ID = "userId";
+
     private String secretKey;
     private long validityInMilliseconds;
     private final long refreshInMilliseconds = 3 * 60 * 60 * 1000;
     private Key key;
+    private JwtParser jwtParser;
 
     private final ConfigurationComponent configurationComponent;
 
@@ -37,11 +41,14 @@ public class JwtTokenProvider {
         secretKey = Base64.getEncoder().encodeToString(configurationComponent.getJwtSecretKey().getBytes());
         validityInMilliseconds = configurationComponent.getJwtExpireLength();
         key = new SecretKeySpec(secretKey.getBytes(), SignatureAlgorithm.HS256.getJcaName());
+        // the parser is immutable and thread-safe, one instance verifies every token
+        jwtParser = Jwts.parserBuilder().setSigningKey(key).build();
     }
 
-    public String createToken(String username, List<String> roles) {
+    public String createToken(String username, String userId, List<String> roles) {
         Claims claims = Jwts.claims().setSubject(username);
-        claims.put("roles", roles);
+        claims.put(USER_ID, userId);
+        claims.put(ROLES, roles);
 
         Date now = new Date();
         Date validity = new Date(now.getTime() + validityInMilliseconds);
@@ -56,7 +63,7 @@ public class JwtTokenProvider {
 
     public String createOneTimeUseSessionToken(String username) {
         Claims claims = Jwts.claims().setSubject(username);
-        claims.put("roles", "USER");
+        claims.put(ROLES, "USER");
 
         Date now = new Date();
         Date validity = new Date(now.getTime() + 300000);
@@ -94,35 +101,59 @@ public class JwtTokenProvider {
                 .compact();
     }
 
+    /**
+     * Verifies the signature and expiry of a token and returns its claims. Callers should parse a
+     * token once and read everything they need from the result.
+     *
+     * @param token {@link String} JWT
+     *
+     * @return {@link VerifiedToken} or null if the token is invalid or expired
+     */
+    public VerifiedToken parse(String token) {
+        try {
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
+            return VerifiedToken.builder()
+                    .username(claims.getSubject())
+                    .userId(claims.get(USER_ID, String.class))
+                    .roles(getRoles(claims))
+                    .issuedAt(claims.getIssuedAt())
+                    .expiration(claims.getExpiration())
+                    .build();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     public Claims getClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
-                    @Override
-                    public byte[] resolveSigningKeyBytes(JwsHeader header, Claims claims) {
-                        return secretKey.getBytes();
-                    }
-                })
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return jwtParser.parseClaimsJws(token).getBody();
     }
 
     public boolean validateToken(String token) {
-        try {
-            Jws<Claims> claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
-            return !claims.getBody().getExpiration().before(new Date());
-        } catch (JwtException | IllegalArgumentException e) {
-            return false;
-        }
+        return null != parse(token);
     }
 
     public String getUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        return getClaimsFromToken(token).getSubject();
+    }
+
+    /**
+     * Roles are written as a list, except for one time session tokens which carry a single role.
+     */
+    private List<String> getRoles(Claims claims) {
+        Object roles = claims.get(ROLES);
+        if (roles instanceof List<?> roleList) {
+            return roleList.stream().map(String::valueOf).toList();
+        }
+        return null != roles ? List.of(roles.toString()) : List.of();
+    }
+
+    /**
+     * Get the longest validity of any token this provider issues.
+     *
+     * @return long validity in milliseconds
+     */
+    public long getMaxTokenValidityInMilliseconds() {
+        return Math.max(validityInMilliseconds, refreshInMilliseconds);
     }
 
     public String resolveToken(HttpServletRequest req) {
@@ -0,0 +1,17 @@
+package com.morris.quizly.models.security;
+
+import lombok.Getter;
+
+/**
+ * Thrown when the password hashing executor is saturated. Callers should answer with
+ * 429 Too Many Requests and ask the client to retry after the given delay.
+ */
+@Getter
+public class PasswordHashingRejectedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public PasswordHashingRejectedException(long retryAfterSeconds) {
+        super("Password hashing is at capacity");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
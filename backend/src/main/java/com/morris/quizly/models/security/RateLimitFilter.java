@@ -0,0 +1,73 @@
+package com.morris.quizly.models.security;
+
+import com.morris.quizly.services.RateLimitService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.jetbrains.annotations.NotNull;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate limits the quiz generation and auth routes. Runs after the {@link JwtTokenFilter}, so every
+ * request is limited by client IP address and authenticated requests also by user id. The client
+ * address is taken from X-Forwarded-For only when the request comes from a trusted proxy, see
+ * <b>server.forward-headers-strategy</b> and <b>server.tomcat.remoteip.internal-proxies</b>.
+ * <p>
+ * Not a bean on purpose: as a bean Spring Boot would also register it as a servlet filter, where it
+ * would run before authentication.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String RATE_LIMITED = "{\"error\":\"Too many requests, please try again shortly\"}";
+
+    private final RateLimitService rateLimitService;
+
+    public RateLimitFilter(RateLimitService rateLimitService) {
+        this.rateLimitService = rateLimitService;
+    }
+
+    @Override
+    protected void doFilterInternal(@NotNull HttpServletRequest request, @NotNull HttpServletResponse response,
+                                    @NotNull FilterChain filterChain) throws ServletException, IOException {
+        RateLimitRoute route = RateLimitRoute.fromPath(request.getRequestURI().substring(request.getContextPath().length()));
+        if (route != null) {
+            long waitNanos = rateLimitService.tryAcquire(route, request.getRemoteAddr(), userId(request));
+            if (waitNanos > 0) {
+                long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getWriter().write(RATE_LIMITED);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * The user id set by the {@link JwtTokenFilter}. Access tokens issued before the user id claim was
+     * added only carry the username, which limits those sessions until they expire.
+     */
+    private String userId(HttpServletRequest request) {
+        Object userId = request.getAttribute(JwtTokenFilter.USER_ID_ATTRIBUTE);
+        if (userId != null) {
+            return userId.toString();
+        }
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return authentication.getName();
+        }
+        return null;
+    }
+}
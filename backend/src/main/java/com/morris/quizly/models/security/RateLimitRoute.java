@@ -0,0 +1,41 @@
+package com.morris.quizly.models.security;
+
+import java.util.List;
+
+/**
+ * Route groups protected by the {@link RateLimitFilter}. Each group has its own limits and its own
+ * buckets, see RateLimitServiceImpl. Only the auth routes that take credentials or send email are
+ * limited, token refresh and validation run on every page load and are left out.
+ */
+public enum RateLimitRoute {
+    QUIZ_GENERATION("/api/quiz-generation/"),
+    AUTH("/api/auth/login", "/api/auth/signup", "/api/auth/password-reset/");
+
+    private final List<String> pathPrefixes;
+
+    RateLimitRoute(String... pathPrefixes) {
+        this.pathPrefixes = List.of(pathPrefixes);
+    }
+
+    public List<String> getPathPrefixes() {
+        return pathPrefixes;
+    }
+
+    /**
+     * Get the route group of a request path.
+     *
+     * @param path {@link String} request path
+     *
+     * @return {@link RateLimitRoute} or null if the path is not rate limited
+     */
+    public static RateLimitRoute fromPath(String path) {
+        for (RateLimitRoute route : values()) {
+            for (String pathPrefix : route.pathPrefixes) {
+                if (path.startsWith(pathPrefix)) {
+                    return route;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,26 @@
+package com.morris.quizly.models.security;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * A user whose tokens issued up to revokedAt are no longer accepted. Entries expire once every token
+ * issued before the revocation has expired on its own.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document("revoked_principals")
+public class RevokedPrincipal {
+
+    @Id
+    private String username;
+    private Date revokedAt;
+    private Date expiresAt;
+}
@@ -0,0 +1,12 @@
+package com.morris.quizly.models.security;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SignupConfirmationRequest {
+    private String emailAddress;
+}
@@ -0,0 +1,15 @@
+package com.morris.quizly.models.security;
+
+import lombok.*;
+
+/**
+ * Projection of the lock state of a {@link UserDetails}.
+ */
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserAccountStatus {
+    private boolean accountNonLocked;
+}
@@ -0,0 +1,32 @@
+package com.morris.quizly.models.security;
+
+import lombok.*;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * A resized user avatar, stored apart from the user document so authentication payloads only carry
+ * its reference. Avatars are immutable, a new upload creates a new avatar.
+ */
+@Getter
+@Setter
+@ToString(exclude = "data")
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document("user_avatars")
+public class UserAvatar {
+
+    @Id
+    private ObjectId id;
+    private ObjectId userId;
+    private byte[] data;
+    private String contentType;
+    private String etag;
+    private int width;
+    private int height;
+    private Date createdDate;
+}
@@ -13,7 +13,6 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import java.util.Collection;
-import java.util.Date;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -26,6 +25,8 @@ import java.util.stream.Collectors;
 @Document("users")
 public class UserDetails implements org.springframework.security.core.userdetails.UserDetails {
 
+    private static final String AVATAR_URL = "/api/avatars/%s";
+
     @Id
     @BsonId
     @JsonProperty("_id")
@@ -37,20 +38,28 @@ public class UserDetails implements org.springframework.security.core.userdetail
     private String password;
     private String emailAddress;
     private List<String> roles;
-    private String image;
+    @JsonSerialize(using = ToStringSerializer.class)
+    private ObjectId avatarId;
 
     private boolean accountNonExpired;
     private boolean accountNonLocked;
     private boolean credentialsNonExpired;
     private boolean enabled;
     private String lockedReason;
-    private String signupToken;
-    private String passwordResetToken;
-    private Date passwordResetTokenExpiry;
 
     private int flagCount;
     List<SystemFlag> flags;
 
+    /**
+     * Get the url the avatar is served from, see {@link UserAvatar}.
+     *
+     * @return {@link String} avatar url, or null if the user has no avatar
+     */
+    @JsonProperty
+    public String getAvatarUrl() {
+        return null != avatarId ? String.format(AVATAR_URL, avatarId.toHexString()) : null;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return roles.stream()
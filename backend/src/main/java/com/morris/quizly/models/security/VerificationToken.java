@@ -0,0 +1,30 @@
+package com.morris.quizly.models.security;
+
+import lombok.*;
+import org.bson.types.ObjectId;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Single purpose token sent to a user by email, such as a signup confirmation or a password reset.
+ * Tokens are unique and are removed by a TTL index once expiresAt has passed.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Document("verification_tokens")
+public class VerificationToken {
+
+    @Id
+    private ObjectId id;
+    private String token;
+    private VerificationTokenType type;
+    private ObjectId userId;
+    private Date createdDate;
+    private Date expiresAt;
+}
@@ -0,0 +1,6 @@
+package com.morris.quizly.models.security;
+
+public enum VerificationTokenType {
+    SIGNUP,
+    PASSWORD_RESET
+}
@@ -0,0 +1,24 @@
+package com.morris.quizly.models.security;
+
+import lombok.*;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Claims of a JWT whose signature and expiry have been verified by {@link JwtTokenProvider#parse(String)}.
+ */
+@Getter
+@Setter
+@ToString
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class VerifiedToken {
+    private String username;
+    // only present on access tokens, see JwtTokenProvider#createToken
+    private String userId;
+    private List<String> roles;
+    private Date issuedAt;
+    private Date expiration;
+}
@@ -0,0 +1,196 @@
+package com.morris.quizly.models.system;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+import com.morris.quizly.utils.VectorUtil;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+
+import static com.mongodb.client.model.Filters.in;
+
+/**
+ * Caches the embeddings of a delegate {@link EmbeddingModel} by the SHA-256 hash of the model name and
+ * text, so the same text is embedded once. Lookups go to a bounded in-heap tier, weighed by vector
+ * size, and then to an optional Mongo tier shared by every instance. Only the texts missing from both
+ * tiers are sent to the delegate, in one call, and their embeddings are written to both tiers.
+ */
+public class CachingEmbeddingModel implements EmbeddingModel {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CachingEmbeddingModel.class);
+
+    public static final String EMBEDDING_CACHE_COLLECTION = "embedding_cache";
+
+    private static final String EMBEDDING_CACHE = "embeddingCache";
+    private static final String EMBEDDING_CACHE_REQUESTS = "quizly.embedding-cache.requests";
+    private static final String TIER = "tier";
+    private static final String SHA_256 = "SHA-256";
+
+    private static final String _ID = "_id";
+    private static final String MODEL = "model";
+    private static final String VECTOR = "vector";
+    private static final String CREATED_DATE = "createdDate";
+    private static final String EXPIRES_AT = "expiresAt";
+
+    // key, array header and reference overhead of an entry
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+    private static final int DUPLICATE_KEY_ERROR = 11000;
+
+    private final EmbeddingModel delegate;
+    private final String modelName;
+    private final Cache<String, float[]> embeddings;
+    private final MongoTemplate mongoTemplate;
+    private final Duration persistentTtl;
+    private final Counter memoryHits;
+    private final Counter persistentHits;
+    private final Counter misses;
+
+    /**
+     * @param delegate       {@link EmbeddingModel} embedding model
+     * @param modelName      {@link String} name of the delegate model, part of every key
+     * @param maxBytes       long: maximum size of the in-heap tier
+     * @param mongoTemplate  {@link MongoTemplate} for the persistent tier, null to disable it
+     * @param persistentTtl  {@link Duration} how long persisted embeddings are kept
+     * @param meterRegistry  {@link MeterRegistry}
+     */
+    public CachingEmbeddingModel(EmbeddingModel delegate, String modelName, long maxBytes, MongoTemplate mongoTemplate,
+                                 Duration persistentTtl, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.modelName = modelName;
+        this.mongoTemplate = mongoTemplate;
+        this.persistentTtl = persistentTtl;
+        this.embeddings = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, float[] vector) -> ENTRY_OVERHEAD_BYTES + vector.length * Float.BYTES)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, embeddings, EMBEDDING_CACHE);
+        this.memoryHits = Counter.builder(EMBEDDING_CACHE_REQUESTS).tag(TIER, "memory").register(meterRegistry);
+        this.persistentHits = Counter.builder(EMBEDDING_CACHE_REQUESTS).tag(TIER, "mongo").register(meterRegistry);
+        this.misses = Counter.builder(EMBEDDING_CACHE_REQUESTS).tag(TIER, "miss").register(meterRegistry);
+    }
+
+    @Override
+    public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+        String[] keys = new String[textSegments.size()];
+        float[][] vectors = new float[textSegments.size()][];
+        Map<String, List<Integer>> missing = new LinkedHashMap<>();
+        for (int i = 0; i < textSegments.size(); i++) {
+            keys[i] = key(textSegments.get(i).text());
+            vectors[i] = embeddings.getIfPresent(keys[i]);
+            if (null != vectors[i]) {
+                memoryHits.increment();
+            } else {
+                missing.computeIfAbsent(keys[i], key -> new ArrayList<>()).add(i);
+            }
+        }
+        if (!missing.isEmpty() && null != mongoTemplate) {
+            readPersisted(missing.keySet()).forEach((key, vector) -> {
+                embeddings.put(key, vector);
+                for (int index : missing.remove(key)) {
+                    vectors[index] = vector;
+                    persistentHits.increment();
+                }
+            });
+        }
+        Response<List<Embedding>> delegateResponse = null;
+        if (!missing.isEmpty()) {
+            List<String> missingKeys = new ArrayList<>(missing.keySet());
+            List<TextSegment> missingSegments = missingKeys.stream()
+                    .map(key -> textSegments.get(missing.get(key).get(0)))
+                    .toList();
+            delegateResponse = delegate.embedAll(missingSegments);
+            Map<String, float[]> embedded = new HashMap<>();
+            for (int i = 0; i < missingKeys.size(); i++) {
+                String key = missingKeys.get(i);
+                float[] vector = delegateResponse.content().get(i).vector();
+                embeddings.put(key, vector);
+                embedded.put(key, vector);
+                for (int index : missing.get(key)) {
+                    vectors[index] = vector;
+                    misses.increment();
+                }
+            }
+            if (null != mongoTemplate) {
+                persist(embedded);
+            }
+        }
+        // callers get copies, cached vectors are never handed out
+        List<Embedding> result = new ArrayList<>(vectors.length);
+        for (float[] vector : vectors) {
+            result.add(Embedding.from(vector.clone()));
+        }
+        return null != delegateResponse
+                ? Response.from(result, delegateResponse.tokenUsage(), delegateResponse.finishReason())
+                : Response.from(result);
+    }
+
+    private Map<String, float[]> readPersisted(Collection<String> keys) {
+        Map<String, float[]> persisted = new HashMap<>();
+        try {
+            collection().find(in(_ID, keys)).forEach(document -> persisted.put(
+                    document.getString(_ID),
+                    VectorUtil.fromBinaryVector(document.get(VECTOR, Binary.class))
+            ));
+        } catch (Exception e) {
+            LOGGER.warn("Unable to read persisted embeddings: {}", e.getMessage());
+        }
+        return persisted;
+    }
+
+    private void persist(Map<String, float[]> embedded) {
+        Date now = new Date();
+        Date expiresAt = new Date(now.getTime() + persistentTtl.toMillis());
+        List<Document> documents = embedded.entrySet().stream()
+                .map(entry -> new Document(_ID, entry.getKey())
+                        .append(MODEL, modelName)
+                        .append(VECTOR, VectorUtil.toBinaryVector(entry.getValue()))
+                        .append(CREATED_DATE, now)
+                        .append(EXPIRES_AT, expiresAt))
+                .toList();
+        try {
+            collection().insertMany(documents, new InsertManyOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            // another instance may have persisted the same text first, duplicates are expected
+            boolean onlyDuplicates = null == e.getWriteConcernError() && e.getWriteErrors().stream()
+                    .allMatch(error -> error.getCode() == DUPLICATE_KEY_ERROR);
+            if (!onlyDuplicates) {
+                LOGGER.warn("Unable to persist embeddings: {}", e.getMessage());
+            }
+        } catch (Exception e) {
+            LOGGER.warn("Unable to persist embeddings: {}", e.getMessage());
+        }
+    }
+
+    private MongoCollection<Document> collection() {
+        return mongoTemplate.getCollection(EMBEDDING_CACHE_COLLECTION);
+    }
+
+    private String key(String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(SHA_256);
+            digest.update(modelName.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -1,16 +1,17 @@
 package com.morris.quizly.models.system;
 
+import dev.langchain4j.service.TokenStream;
 import dev.langchain4j.service.UserMessage;
 import dev.langchain4j.service.V;
-import dev.langchain4j.service.spring.AiService;
 
 /**
  * Quizly's system AI provides a functional interface for various LLM providers. This interface utilizes general
  * templates that can be used across different providers and languages.
  * <br><br>
  * Review prompt templates at <b>backend/src/main/resources/prompts</b>
+ * <br><br>
+ * The proxy is built once in {@link com.morris.quizly.configurations.OpenAiConfiguration} and shared as a bean.
  */
-@AiService
 public interface SystemAi {
 
     /**
@@ -49,4 +50,21 @@ public interface SystemAi {
     @UserMessage(fromResource = "/prompts/quiz-with-context-format-bg.txt")
     String openAiWithContextQuizPromptBG(@V("message") String userMessage, @V("context") String context);
 
+    /**
+     * General OpenAi Quiz prompt for the English language, streamed token by token.
+     *
+     * @param userMessage prompt for AI system that contains the user input
+     * @return {@link TokenStream} AI system response stream, started by the caller
+     */
+    @UserMessage(fromResource = "/prompts/basic-quiz-format-en.txt")
+    TokenStream streamOpenAiQuizPromptEN(@V("message") String userMessage);
+
+    /**
+     * General OpenAi Quiz prompt for the Bulgarian language, streamed token by token.
+     *
+     * @param userMessage prompt for AI system that contains the user input
+     * @return {@link TokenStream} AI system response stream, started by the caller
+     */
+    @UserMessage(fromResource = "/prompts/basic-quiz-format-bg.txt")
+    TokenStream streamOpenAiQuizPromptBG(@V("message") String userMessage);
 }
@@ -0,0 +1,18 @@
+package com.morris.quizly.models.system;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Projection of the {@link SystemFlag}s raised against a user.
+ */
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserSystemFlags {
+    private int flagCount;
+    private List<SystemFlag> flags;
+}
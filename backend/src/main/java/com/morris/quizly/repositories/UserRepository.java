@@ -1,12 +1,12 @@
 package com.morris.quizly.repositories;
 
+import com.morris.quizly.models.security.UserAccountStatus;
 import com.morris.quizly.models.security.UserDetails;
-import com.morris.quizly.models.system.SystemFlag;
+import com.morris.quizly.models.system.UserSystemFlags;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -21,40 +21,33 @@ public interface UserRepository extends MongoRepository<UserDetails, String> {
     Optional<UserDetails> findByUsername(String username);
 
     /**
-     * Find user by signup token. Signup tokens are used to confirm application subscriptions.
+     * Count users with a username. Usernames are unique, so the count is 0 or 1, and it is answered
+     * from the unique username index without reading any user document.
      *
-     * @param token {@link String} signup token
-     *
-     * @return {@link UserDetails}
-     */
-    Optional<UserDetails> findBySignupToken(String token);
-
-    /**
-     * Find user by password reset token. Password tokens expire.
-     *
-     * @param token {@link String} password reset token
+     * @param username {@link String} username
      *
-     * @return {@link UserDetails}
+     * @return long
      */
-    Optional<UserDetails> findByPasswordResetToken(String token);
+    @Query(value = "{ 'username': ?0 }", count = true)
+    long countByUsername(String username);
 
     /**
-     * Determines if an account is non-locked.
+     * Get the lock state of a user.
      *
      * @param userId {@link String} userId
      *
-     * @return boolean
+     * @return {@link UserAccountStatus}
      */
-    @Query(value = "{ '_id': ?0 }", fields = "{ 'isAccountNonLocked' : 1 }")
-    Boolean isAccountNonLocked(String userId);
+    @Query(value = "{ '_id': ?0 }", fields = "{ '_id': 0, 'accountNonLocked': 1 }")
+    Optional<UserAccountStatus> findAccountStatusById(String userId);
 
     /**
-     * Get {@link SystemFlag} list of a user.
+     * Get the system flags raised against a user.
      *
      * @param userId {@link String} userId
      *
-     * @return {@link List<SystemFlag>}
+     * @return {@link UserSystemFlags}
      */
-    @Query(value = "{ '_id': ?0 }", fields = "{ 'flags' : 1 }")
-    List<SystemFlag> getSystemFlagsByUserId(String userId);
+    @Query(value = "{ '_id': ?0 }", fields = "{ '_id': 0, 'flagCount': 1, 'flags': 1 }")
+    Optional<UserSystemFlags> findSystemFlagsById(String userId);
 }
@@ -0,0 +1,42 @@
+package com.morris.quizly.repositories;
+
+import com.morris.quizly.models.security.VerificationToken;
+import com.morris.quizly.models.security.VerificationTokenType;
+import org.bson.types.ObjectId;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.Optional;
+
+@Repository
+public interface VerificationTokenRepository extends MongoRepository<VerificationToken, ObjectId> {
+
+    /**
+     * Find an unexpired token. The TTL monitor removes expired tokens periodically, so expiry is
+     * also checked on lookup.
+     *
+     * @param token {@link String} token
+     * @param type  {@link VerificationTokenType} token type
+     * @param now   {@link Date} current time
+     *
+     * @return {@link VerificationToken}
+     */
+    Optional<VerificationToken> findByTokenAndTypeAndExpiresAtAfter(String token, VerificationTokenType type, Date now);
+
+    /**
+     * Delete a token.
+     *
+     * @param token {@link String} token
+     * @param type  {@link VerificationTokenType} token type
+     */
+    void deleteByTokenAndType(String token, VerificationTokenType type);
+
+    /**
+     * Delete every token of a type issued to a user.
+     *
+     * @param userId {@link ObjectId} userId
+     * @param type   {@link VerificationTokenType} token type
+     */
+    void deleteByUserIdAndType(ObjectId userId, VerificationTokenType type);
+}
@@ -32,6 +32,16 @@ public interface AuthenticationService {
      */
     ResponseEntity<?> refreshToken(JwtRefreshRequest jwtRefreshRequest);
 
+    /**
+     * Resends the signup confirmation email with a new token, if the account exists and is not
+     * confirmed yet. The response does not reveal whether it does.
+     *
+     * @param signupConfirmationRequest {@link SignupConfirmationRequest}
+     *
+     * @return {@link ResponseEntity}
+     */
+    ResponseEntity<String> resendSignupConfirmation(SignupConfirmationRequest signupConfirmationRequest);
+
     /**
      * Examines a token and identifies if is a valid token.
      *
@@ -0,0 +1,38 @@
+package com.morris.quizly.services;
+
+import com.morris.quizly.models.runners.ClusterJob;
+
+/**
+ * Interface provides lease based execution of {@link ClusterJob}s, so each job runs on exactly one
+ * instance per interval.
+ */
+public interface ClusterJobService {
+
+    /**
+     * Runs a job if it is due and no other instance holds its lease.
+     *
+     * @param job {@link ClusterJob} job
+     *
+     * @return boolean true if this instance ran the job
+     */
+    boolean runIfDue(ClusterJob job);
+
+    /**
+     * Determines if a one-shot job has completed successfully on any instance.
+     *
+     * @param job {@link ClusterJob} job
+     *
+     * @return boolean
+     */
+    boolean isCompleted(ClusterJob job);
+
+    /**
+     * Determines if a fencing token still identifies the current lease of a job.
+     *
+     * @param jobName      {@link String} job name
+     * @param fencingToken long: fencing token of the lease
+     *
+     * @return boolean
+     */
+    boolean isLeaseHeld(String jobName, long fencingToken);
+}
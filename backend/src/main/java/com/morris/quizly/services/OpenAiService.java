@@ -2,9 +2,13 @@ package com.morris.quizly.services;
 
 import com.morris.quizly.models.locales.Language;
 import com.morris.quizly.models.quiz.Quiz;
+import com.morris.quizly.models.quiz.QuizGeneration;
+import com.morris.quizly.models.quiz.QuizRequest;
+import com.morris.quizly.models.quiz.QuizlyQuestionGroup;
 import dev.langchain4j.model.embedding.EmbeddingModel;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Interface to provide different functionality for the OpenAI service.
@@ -21,6 +25,29 @@ public interface OpenAiService {
      */
     String generateBasicQuizResponse(String prompt, Language language);
 
+    /**
+     * Generate and parse a basic quiz for a quiz request. The response of a similar request is served
+     * from the semantic cache, unless the request bypasses it. Identical requests in flight at the same
+     * time share one generation and one parse.
+     *
+     * @param quizRequest {@link QuizRequest} quiz request
+     *
+     * @return {@link QuizGeneration} quiz response, parsed only when generation succeeded
+     */
+    QuizGeneration generateBasicQuiz(QuizRequest quizRequest);
+
+    /**
+     * Stream a basic quiz generation response. The callbacks run on the thread delivering the stream.
+     *
+     * @param prompt     {@link String} user input to AI system interface
+     * @param language   {@link Language} response language
+     * @param onToken    {@link Consumer} receives each token as it arrives
+     * @param onComplete {@link Consumer} receives the full response once the stream completes
+     * @param onError    {@link Consumer} receives the error if the stream fails
+     */
+    void streamBasicQuizResponse(String prompt, Language language, Consumer<String> onToken,
+                                 Consumer<String> onComplete, Consumer<Throwable> onError);
+
     /**
      * Generate quiz generation response with given context. This ensures that
      * generated quizzes are unique for users.
@@ -34,12 +61,16 @@ public interface OpenAiService {
     String generateQuizResponseWithDocumentContext(String userId, String prompt, Language language);
 
     /**
-     * Creates embeddings using OpenAi's Ada002TextEmbeddings model.
+     * Creates embeddings of a generated quiz using OpenAi's Ada002TextEmbeddings model. The embedding
+     * input is built straight from the quiz title and question groups in a canonical order, so it is
+     * independent of the layout of the generated PDF.
+     *
+     * @param quizTitle      {@link String} quiz title
+     * @param questionGroups {@link List<QuizlyQuestionGroup>} parsed quiz questions, options and answers
      *
-     * @param pdfContent byte[] pdfContent
-     * @return {@link List<Double>}
+     * @return float[] embedding vector, null if there is nothing to embed
      */
-    List<Double> embedWithOpenAiAda002TextEmbeddings(byte[] pdfContent);
+    float[] embedWithOpenAiAda002TextEmbeddings(String quizTitle, List<QuizlyQuestionGroup> questionGroups);
 
     /**
      * Get {@link List} of matching quizzes based on given user prompt.
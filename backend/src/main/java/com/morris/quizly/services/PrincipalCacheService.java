@@ -0,0 +1,27 @@
+package com.morris.quizly.services;
+
+import com.morris.quizly.models.security.UserDetails;
+
+/**
+ * Interface provides a bounded, expiring cache of authenticated principals, so authenticating a
+ * request does not need to read the user from the database each time.
+ */
+public interface PrincipalCacheService {
+
+    /**
+     * Get the principal of a user, loading it on a cache miss. The principal only carries the fields
+     * needed for authorization.
+     *
+     * @param username {@link String} username. Usernames are also user email addresses.
+     *
+     * @return {@link UserDetails} or null if the user does not exist
+     */
+    UserDetails getPrincipal(String username);
+
+    /**
+     * Evict the principal of a user by username.
+     *
+     * @param username {@link String} username
+     */
+    void invalidate(String username);
+}
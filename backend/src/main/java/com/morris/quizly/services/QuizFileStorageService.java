@@ -0,0 +1,57 @@
+package com.morris.quizly.services;
+
+import com.morris.quizly.models.quiz.QuizFile;
+import org.bson.types.ObjectId;
+
+/**
+ * Interface provides binary storage for quiz PDFs and thumbnails. Files are stored in GridFS,
+ * outside the quiz documents, and are read back as streams.
+ */
+public interface QuizFileStorageService {
+
+    /**
+     * Store a quiz PDF.
+     *
+     * @param quizId     {@link ObjectId} id of the quiz the PDF belongs to
+     * @param pdfContent byte[] pdfContent
+     *
+     * @return {@link ObjectId} stored file id
+     */
+    ObjectId storeQuizPdf(ObjectId quizId, byte[] pdfContent);
+
+    /**
+     * Store a quiz thumbnail.
+     *
+     * @param quizId      {@link ObjectId} id of the quiz the thumbnail belongs to
+     * @param data        byte[] encoded image
+     * @param contentType {@link String} image content type
+     *
+     * @return {@link ObjectId} stored file id
+     */
+    ObjectId storeQuizThumbnail(ObjectId quizId, byte[] data, String contentType);
+
+    /**
+     * Get the PDF of a quiz as a streamable {@link QuizFile}.
+     *
+     * @param quizId {@link String} quizId
+     *
+     * @return {@link QuizFile} or null if the quiz has no PDF
+     */
+    QuizFile getQuizPdf(String quizId);
+
+    /**
+     * Get the thumbnail of a quiz as a streamable {@link QuizFile}.
+     *
+     * @param quizId {@link String} quizId
+     *
+     * @return {@link QuizFile} or null if the quiz has no thumbnail
+     */
+    QuizFile getQuizThumbnail(String quizId);
+
+    /**
+     * Delete a stored file.
+     *
+     * @param fileId {@link ObjectId} file id
+     */
+    void deleteFile(ObjectId fileId);
+}
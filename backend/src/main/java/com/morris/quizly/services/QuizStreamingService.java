@@ -0,0 +1,23 @@
+package com.morris.quizly.services;
+
+import com.morris.quizly.models.quiz.QuizRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Interface provides quiz generation streamed to the client as Server-Sent Events.
+ */
+public interface QuizStreamingService {
+
+    /**
+     * Stream a basic quiz. A <b>question</b> event carries each question group, without its answer,
+     * as soon as its options have streamed. Once the stream completes, the quiz is parsed, its PDF,
+     * thumbnail and embeddings are generated and saved, and a <b>complete</b> event carries the question
+     * groups with their answers. A refused request ends with a <b>flagged</b> event, a failure with an
+     * <b>error</b> event.
+     *
+     * @param quizRequest {@link QuizRequest} quiz request
+     *
+     * @return {@link SseEmitter} event stream
+     */
+    SseEmitter streamBasicQuiz(QuizRequest quizRequest);
+}
@@ -1,7 +1,10 @@
 package com.morris.quizly.services;
 
-import com.morris.quizly.models.quiz.Quiz;
+import com.morris.quizly.models.quiz.QuizCursor;
+import com.morris.quizly.models.quiz.QuizParseResult;
 import com.morris.quizly.models.quiz.QuizRequest;
+import com.morris.quizly.models.quiz.QuizSummary;
+import com.morris.quizly.models.quiz.QuizSummaryCursorPage;
 import com.morris.quizly.models.quiz.QuizlyQuestionGroup;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -14,22 +17,34 @@ import java.util.List;
 public interface QuizlyDocumentService {
 
     /**
-     * Generates a PDF document for generated Quizzes.
+     * Generates a PDF document for a parsed generated quiz and saves the quiz. The parse may be shared
+     * with coalesced requests, the saved quiz holds its own copy of the question groups.
      *
-     * @param text        {@link String} document text
+     * @param parseResult {@link QuizParseResult} parsed quiz
      * @param quizRequest {@link QuizRequest}
      *
      * @return {@link List<QuizlyQuestionGroup>}
      */
-    List<QuizlyQuestionGroup> generateQuizlyPDF(String text, QuizRequest quizRequest);
+    List<QuizlyQuestionGroup> generateQuizlyPDF(QuizParseResult parseResult, QuizRequest quizRequest);
 
     /**
-     * Get quizzes by userId, returning most recent documents first.
+     * Get quiz summaries by userId, returning most recent documents first.
      *
      * @param userId   {@link String} userId
      * @param pageable {@link Pageable} containing paging details (page, size)
      *
-     * @return {@link Page<Quiz>}
+     * @return {@link Page<QuizSummary>}
      */
-    Page<Quiz> getQuizzesByUserIdDescending(String userId, Pageable pageable);
+    Page<QuizSummary> getQuizSummariesByUserIdDescending(String userId, Pageable pageable);
+
+    /**
+     * Get quiz summaries by userId after a cursor, returning most recent documents first.
+     *
+     * @param userId {@link String} userId
+     * @param cursor {@link QuizCursor} position of the last quiz of the previous page, null for the first page
+     * @param size   int: document count
+     *
+     * @return {@link QuizSummaryCursorPage}
+     */
+    QuizSummaryCursorPage getQuizSummariesByUserIdAfterCursor(String userId, QuizCursor cursor, int size);
 }
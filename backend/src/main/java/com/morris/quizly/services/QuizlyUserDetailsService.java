@@ -1,13 +1,15 @@
 package com.morris.quizly.services;
 
 import com.morris.quizly.models.security.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
 /**
  * Interface provides functionality for Quizly users such as user retrieval, creations,
- * deletion, and update.
+ * deletion, and update. As a {@link UserDetailsPasswordService} it stores passwords rehashed
+ * on login when the password encoding is upgraded.
  */
-public interface QuizlyUserDetailsService extends UserDetailsService {
+public interface QuizlyUserDetailsService extends UserDetailsService, UserDetailsPasswordService {
 
     /**
      * Get user by username.
@@ -36,6 +38,14 @@ public interface QuizlyUserDetailsService extends UserDetailsService {
      */
     boolean isUserNameInUse(String username);
 
+    /**
+     * Issue a signup confirmation token for a user, replacing any earlier one. The token expires.
+     *
+     * @param user  {@link UserDetails} user
+     * @param token {@link String} token
+     */
+    void createSignupToken(UserDetails user, String token);
+
     /**
      * Find user by signup token.
      *
@@ -64,7 +74,7 @@ public interface QuizlyUserDetailsService extends UserDetailsService {
     UserDetails findByPasswordResetToken(String token);
 
     /**
-     * Modifies user enabled status.
+     * Modifies user enabled status. Enabling a user removes its signup token.
      *
      * @param user {@link UserDetails} user
      * @param enabled boolean
@@ -72,7 +82,7 @@ public interface QuizlyUserDetailsService extends UserDetailsService {
     void updateEnabledStatus(UserDetails user, boolean enabled);
 
     /**
-     * Modifies user password reset token.
+     * Issues a password reset token for a user, replacing any earlier one. The token expires.
      *
      * @param user {@link UserDetails} user
      * @param token {@link String} token
@@ -80,7 +90,7 @@ public interface QuizlyUserDetailsService extends UserDetailsService {
     void updateAndSetPasswordResetToken(UserDetails user, String token);
 
     /**
-     * Modifies and removes user password reset token and expiry TTL.
+     * Removes a password reset token so it cannot be reused.
      *
      * @param token {@link String} password reset token
      */
@@ -0,0 +1,21 @@
+package com.morris.quizly.services;
+
+import com.morris.quizly.models.security.RateLimitRoute;
+
+/**
+ * Interface provides token bucket rate limiting per route group and client.
+ */
+public interface RateLimitService {
+
+    /**
+     * Take a token from the bucket of the client IP for a route group, then from the bucket of the user
+     * if the request is authenticated. A request must be allowed by both.
+     *
+     * @param route    {@link RateLimitRoute} route group
+     * @param clientIp {@link String} client IP address
+     * @param userId   {@link String} authenticated user id, null for anonymous requests
+     *
+     * @return long 0 if the request is allowed, otherwise the nanoseconds until a token is available
+     */
+    long tryAcquire(RateLimitRoute route, String clientIp, String userId);
+}
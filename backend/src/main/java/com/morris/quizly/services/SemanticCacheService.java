@@ -0,0 +1,26 @@
+package com.morris.quizly.services;
+
+import com.morris.quizly.models.quiz.QuizRequest;
+
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Interface provides a semantic cache of quiz generation responses. A request is answered from the
+ * cache when a request for the same language and question count, with a prompt whose embedding is
+ * close enough, was answered before.
+ */
+public interface SemanticCacheService {
+
+    /**
+     * Get the response of a similar quiz request, or generate the response and cache it. Requests that
+     * bypass the cache are always generated and never cached.
+     *
+     * @param quizRequest {@link QuizRequest} quiz request
+     * @param generator   {@link Supplier} generates the response on a cache miss
+     * @param cacheable   {@link Predicate} determines if a generated response may be cached
+     *
+     * @return {@link String} cached or generated response
+     */
+    String getOrGenerate(QuizRequest quizRequest, Supplier<String> generator, Predicate<String> cacheable);
+}
@@ -0,0 +1,19 @@
+package com.morris.quizly.services;
+
+import com.morris.quizly.models.pdf.QuizThumbnail;
+
+/**
+ * Interface provides thumbnail rendering for generated quiz documents.
+ */
+public interface ThumbnailService {
+
+    /**
+     * Render a thumbnail of the first page of a PDF using the configured thumbnail profile
+     * (resolution, maximum width and image format).
+     *
+     * @param pdfContent byte[] pdfContent
+     *
+     * @return {@link QuizThumbnail} or null if the PDF cannot be rendered
+     */
+    QuizThumbnail createThumbnail(byte[] pdfContent);
+}
@@ -0,0 +1,26 @@
+package com.morris.quizly.services;
+
+import com.morris.quizly.models.security.VerifiedToken;
+
+/**
+ * Interface provides a compact revocation list of users whose issued tokens must be rejected, for
+ * example after an account lock. Checking a token never reads from the database.
+ */
+public interface TokenRevocationService {
+
+    /**
+     * Revoke every token issued to a user until now.
+     *
+     * @param username {@link String} username
+     */
+    void revokeUser(String username);
+
+    /**
+     * Determines if a verified token has been revoked.
+     *
+     * @param verifiedToken {@link VerifiedToken}
+     *
+     * @return boolean
+     */
+    boolean isRevoked(VerifiedToken verifiedToken);
+}
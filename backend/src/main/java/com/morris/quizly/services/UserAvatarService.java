@@ -0,0 +1,39 @@
+package com.morris.quizly.services;
+
+import com.morris.quizly.models.security.UserAvatar;
+import org.bson.types.ObjectId;
+
+import java.io.InputStream;
+
+/**
+ * Interface provides storage for user avatars. Uploaded images are resized to the configured bounds
+ * and stored as binary in their own collection.
+ */
+public interface UserAvatarService {
+
+    /**
+     * Resize and store an avatar.
+     *
+     * @param userId      {@link ObjectId} id of the user the avatar belongs to
+     * @param imageStream {@link InputStream} uploaded image
+     *
+     * @return {@link ObjectId} stored avatar id, or null if the image cannot be read
+     */
+    ObjectId storeAvatar(ObjectId userId, InputStream imageStream);
+
+    /**
+     * Get an avatar.
+     *
+     * @param avatarId {@link String} avatarId
+     *
+     * @return {@link UserAvatar} or null if no avatar matches
+     */
+    UserAvatar getAvatar(String avatarId);
+
+    /**
+     * Delete an avatar.
+     *
+     * @param avatarId {@link ObjectId} avatarId
+     */
+    void deleteAvatar(ObjectId avatarId);
+}
@@ -5,10 +5,13 @@ import com.morris.quizly.services.AuthenticationService;
 import com.morris.quizly.services.NotificationService;
 import com.morris.quizly.services.QuizlyUserDetailsService;
 import com.morris.quizly.services.RecaptchaService;
-import com.morris.quizly.utils.FileUtil;
+import com.morris.quizly.services.TokenRevocationService;
+import com.morris.quizly.services.UserAvatarService;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -21,6 +24,8 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -35,6 +40,8 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private final NotificationService notificationService;
     private final RecaptchaService recaptchaService;
     private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserAvatarService userAvatarService;
 
     private static final String USER_DETAILS = "userDetails";
     private static final String ACCESS_TOKEN = "accessToken";
@@ -49,6 +56,7 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private static final String USERNAME_IN_USE = "Email address is already in use.";
     private static final String INVALID_USER_NAME = "Invalid user or email address";
     private static final String MISSING_REFRESH_TOKEN = "Missing refresh token";
+    private static final String TOO_MANY_REQUESTS = "Too many requests, please try again shortly";
 
     private static final String SIGNUP_SUCCESS = "Signup Successful";
     private static final String SUCCESS = "success";
@@ -56,7 +64,8 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     @Autowired
     public AuthenticationServiceImpl(AuthenticationManager authenticationManager, JwtTokenProvider jwtTokenProvider,
                                      QuizlyUserDetailsService quizlyDetailsService, RecaptchaService recaptchaService,
-                                     NotificationService notificationService, PasswordEncoder passwordEncoder) {
+                                     NotificationService notificationService, PasswordEncoder passwordEncoder,
+                                     TokenRevocationService tokenRevocationService, UserAvatarService userAvatarService) {
 
         this.authenticationManager = authenticationManager;
         this.jwtTokenProvider = jwtTokenProvider;
@@ -64,6 +73,8 @@ public class AuthenticationServiceImpl implements AuthenticationService {
         this.notificationService = notificationService;
         this.recaptchaService = recaptchaService;
         this.passwordEncoder = passwordEncoder;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userAvatarService = userAvatarService;
     }
 
     @Override
@@ -80,12 +91,20 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             // Note: getUserName() and getEmailAddress() are being interchanged. This is because quizly usernames
             // are indeed their emailAddress. You can see this below in the signup process.
             UserDetails userDetails = (com.morris.quizly.models.security.UserDetails) authentication.getPrincipal();
-            String token = jwtTokenProvider.createToken(userDetails.getUsername(), userDetails.getRoles());
+            String token = jwtTokenProvider.createToken(
+                    userDetails.getUsername(),
+                    userDetails.getId().toHexString(),
+                    userDetails.getRoles()
+            );
             String refreshToken = jwtTokenProvider.createRefreshToken(request.getEmailAddress());
             Map<String, Object> response = Map.of(USER_DETAILS, userDetails, ACCESS_TOKEN, token, REFRESH_TOKEN, refreshToken);
             return ResponseEntity.ok()
                     .contentType(MediaType.APPLICATION_JSON)
                     .body(response);
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests(e)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of(ERROR, TOO_MANY_REQUESTS));
         } catch (AuthenticationException e) {
             LOGGER.info("ERROR: {}", e.getMessage());
             Map<String, Object> errorResponse = Map.of(
@@ -106,11 +125,16 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                     .body(MISSING_REFRESH_TOKEN);
         }
         try {
-            if (jwtTokenProvider.validateToken(refreshToken)) {
-                String emailAddress = jwtTokenProvider.getUsername(refreshToken);
+            VerifiedToken verifiedRefreshToken = jwtTokenProvider.parse(refreshToken);
+            if (null != verifiedRefreshToken && !tokenRevocationService.isRevoked(verifiedRefreshToken)) {
+                String emailAddress = verifiedRefreshToken.getUsername();
                 UserDetails userDetails = quizlyUserDetailsService.loadUserByUsername(emailAddress);
                 if (userDetails != null) {
-                    String newAccessToken = jwtTokenProvider.createToken(emailAddress, userDetails.getRoles());
+                    String newAccessToken = jwtTokenProvider.createToken(
+                            emailAddress,
+                            userDetails.getId().toHexString(),
+                            userDetails.getRoles()
+                    );
                     String newRefreshToken = jwtTokenProvider.createRefreshToken(emailAddress);
 
                     JwtRefreshResponse jwtRefreshResponse = JwtRefreshResponse.builder()
@@ -149,31 +173,40 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(USERNAME_IN_USE);
         }
-        String imageBase64EncodedStr = null;
-        if (signupRequest.getImage() != null) {
-            imageBase64EncodedStr = FileUtil.base64partEncodedStr(signupRequest.getImage());
-        } else {
-            LOGGER.warn("Signup request contains a null image");
+        String encodedPassword;
+        try {
+            encodedPassword = passwordEncoder.encode(signupRequest.getPassword());
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests(e).body(TOO_MANY_REQUESTS);
         }
-        LOGGER.info(imageBase64EncodedStr);
         String signupToken = UUID.randomUUID().toString(); // make this secure
+        ObjectId userId = new ObjectId();
+        ObjectId avatarId = null;
+        if (null != signupRequest.getImage() && !signupRequest.getImage().isEmpty()) {
+            try (InputStream imageStream = signupRequest.getImage().getInputStream()) {
+                avatarId = userAvatarService.storeAvatar(userId, imageStream);
+            } catch (IOException e) {
+                LOGGER.warn("Error reading signup avatar: {}", e.getMessage());
+            }
+        }
         com.morris.quizly.models.security.UserDetails userDetails = com.morris.quizly.models.security.UserDetails.builder()
+                .id(userId)
                 .firstName(signupRequest.getFirstName())
                 .lastName(signupRequest.getLastName())
                 .emailAddress(signupRequest.getEmailAddress())
                 .username(signupRequest.getEmailAddress())
-                .password(passwordEncoder.encode(signupRequest.getPassword()))
+                .password(encodedPassword)
                 .roles(List.of(Roles.ROLE_USER))
-                .image(imageBase64EncodedStr)
+                .avatarId(avatarId)
                 .accountNonLocked(true)
                 .accountNonExpired(true)
                 .credentialsNonExpired(true)
                 .enabled(false)
-                .signupToken(signupToken)
                 .build();
 
         try {
             UserDetails userDetailsResult = quizlyUserDetailsService.save(userDetails);
+            quizlyUserDetailsService.createSignupToken(userDetailsResult, signupToken);
             if (userDetailsResult.isAccountNonLocked()) {
                 notificationService.sendSignupConfirmationEmailAndLink(userDetailsResult, signupToken);
                 return ResponseEntity.ok()
@@ -181,6 +214,9 @@ public class AuthenticationServiceImpl implements AuthenticationService {
             }
         } catch (Exception e) {
             LOGGER.error(ERROR_SIGNUP + "{}", e.getMessage());
+            if (null != avatarId) {
+                userAvatarService.deleteAvatar(avatarId);
+            }
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(ERROR_SIGNUP + ": " + e.getMessage());
         }
@@ -188,12 +224,28 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                 .body(ERROR_UNKNOWN);
     }
 
+    @Override
+    public ResponseEntity<String> resendSignupConfirmation(SignupConfirmationRequest signupConfirmationRequest) {
+        try {
+            UserDetails userDetails = quizlyUserDetailsService.loadUserByUsername(signupConfirmationRequest.getEmailAddress());
+            if (!userDetails.isEnabled() && userDetails.isAccountNonLocked()) {
+                String signupToken = UUID.randomUUID().toString();
+                quizlyUserDetailsService.createSignupToken(userDetails, signupToken);
+                notificationService.sendSignupConfirmationEmailAndLink(userDetails, signupToken);
+            }
+        } catch (UsernameNotFoundException e) {
+            LOGGER.info("Signup confirmation requested for unknown user");
+        }
+        return ResponseEntity.ok(SUCCESS);
+    }
+
     @Override
     public ResponseEntity<UserDetails> validateOneTimeSessionToken(String token) {
-        if (!jwtTokenProvider.validateToken(token)) {
+        VerifiedToken verifiedToken = jwtTokenProvider.parse(token);
+        if (null == verifiedToken) {
             return ResponseEntity.badRequest().build();
         }
-        String username = jwtTokenProvider.getUsername(token);
+        String username = verifiedToken.getUsername();
         UserDetails user = quizlyUserDetailsService.loadUserByUsername(username);
         if (null != user) {
             return ResponseEntity.ok(user);
@@ -264,6 +316,8 @@ public class AuthenticationServiceImpl implements AuthenticationService {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body("Cannot change password");
             }
+        } catch (PasswordHashingRejectedException e) {
+            return tooManyRequests(e).body(TOO_MANY_REQUESTS);
         } catch (Exception e) {
             LOGGER.error("Error resetting password: {}", e.getMessage());
         }
@@ -277,4 +331,10 @@ public class AuthenticationServiceImpl implements AuthenticationService {
     private boolean isNonEmptyRefreshToken(String token) {
         return token != null && !token.isEmpty();
     }
+
+    private ResponseEntity.BodyBuilder tooManyRequests(PasswordHashingRejectedException e) {
+        LOGGER.warn("Rejected request, password hashing at capacity");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+    }
 }
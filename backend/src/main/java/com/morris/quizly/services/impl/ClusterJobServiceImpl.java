@@ -0,0 +1,197 @@
+package com.morris.quizly.services.impl;
+
+import com.morris.quizly.models.runners.ClusterJob;
+import com.morris.quizly.models.runners.JobLease;
+import com.morris.quizly.services.ClusterJobService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A lease is acquired with a single conditional findAndModify on the job_leases document: it only
+ * matches while the previous lease has expired and, for periodic jobs, the interval has passed since
+ * the last start, for one-shot jobs no run has completed successfully yet. Every acquisition increments
+ * the fencing token. The lease is renewed while the job runs and released with the run outcome when it
+ * ends, a failed one-shot job is retried on the next poll.
+ */
+@Service
+public class ClusterJobServiceImpl implements ClusterJobService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClusterJobServiceImpl.class);
+
+    private static final String _ID = "_id";
+    private static final String OWNER = "owner";
+    private static final String FENCING_TOKEN = "fencingToken";
+    private static final String LEASE_UNTIL = "leaseUntil";
+    private static final String LAST_STARTED_AT = "lastStartedAt";
+    private static final String LAST_COMPLETED_AT = "lastCompletedAt";
+    private static final String LAST_FINISHED_AT = "lastFinishedAt";
+    private static final String LAST_DURATION_MS = "lastDurationMs";
+    private static final String LAST_OUTCOME = "lastOutcome";
+
+    private static final String JOB_DURATION = "quizly.cluster-job.duration";
+    private static final String JOB_LAG = "quizly.cluster-job.lag";
+    private static final String JOB = "job";
+    private static final String OUTCOME = "outcome";
+    private static final String SUCCESS = "success";
+    private static final String FAILURE = "failure";
+
+    private final MongoTemplate mongoTemplate;
+    private final TaskScheduler taskScheduler;
+    private final MeterRegistry meterRegistry;
+    private final String owner;
+
+    @Autowired
+    public ClusterJobServiceImpl(MongoTemplate mongoTemplate, TaskScheduler taskScheduler, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.taskScheduler = taskScheduler;
+        this.meterRegistry = meterRegistry;
+        this.owner = instanceName() + "-" + UUID.randomUUID();
+    }
+
+    @Override
+    public boolean runIfDue(ClusterJob job) {
+        Date startedAt = new Date();
+        Long fencingToken = acquireLease(job, startedAt);
+        if (null == fencingToken) {
+            return false;
+        }
+        Duration renewalPeriod = job.getLeaseDuration().dividedBy(3);
+        ScheduledFuture<?> renewal = taskScheduler.scheduleAtFixedRate(
+                () -> renewLease(job, fencingToken),
+                Instant.now().plus(renewalPeriod),
+                renewalPeriod
+        );
+        long start = System.nanoTime();
+        String outcome = SUCCESS;
+        try {
+            job.execute(fencingToken);
+        } catch (Exception e) {
+            outcome = FAILURE;
+            LOGGER.error("Cluster job '{}' failed: {}", job.getName(), e.getMessage());
+        } finally {
+            renewal.cancel(false);
+            long durationNanos = System.nanoTime() - start;
+            Timer.builder(JOB_DURATION)
+                    .tag(JOB, job.getName())
+                    .tag(OUTCOME, outcome)
+                    .register(meterRegistry)
+                    .record(durationNanos, TimeUnit.NANOSECONDS);
+            releaseLease(job, fencingToken, TimeUnit.NANOSECONDS.toMillis(durationNanos), outcome);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isCompleted(ClusterJob job) {
+        Query query = new Query(Criteria.where(_ID).is(job.getName()).and(LAST_COMPLETED_AT).exists(true));
+        return mongoTemplate.exists(query, JobLease.class);
+    }
+
+    @Override
+    public boolean isLeaseHeld(String jobName, long fencingToken) {
+        Query query = new Query(Criteria.where(_ID).is(jobName)
+                .and(FENCING_TOKEN).is(fencingToken)
+                .and(LEASE_UNTIL).gt(new Date()));
+        return mongoTemplate.exists(query, JobLease.class);
+    }
+
+    /**
+     * Takes the lease of a job if it is free and the job is due.
+     *
+     * @return {@link Long} fencing token of the new lease, or null if the lease was not acquired
+     */
+    private Long acquireLease(ClusterJob job, Date now) {
+        List<Criteria> conditions = new ArrayList<>();
+        conditions.add(new Criteria().orOperator(
+                Criteria.where(LEASE_UNTIL).lt(now),
+                Criteria.where(LEASE_UNTIL).exists(false)
+        ));
+        if (null != job.getInterval()) {
+            conditions.add(new Criteria().orOperator(
+                    Criteria.where(LAST_STARTED_AT).lte(new Date(now.getTime() - job.getInterval().toMillis())),
+                    Criteria.where(LAST_STARTED_AT).exists(false)
+            ));
+        } else {
+            conditions.add(Criteria.where(LAST_COMPLETED_AT).exists(false));
+        }
+        Query query = new Query(Criteria.where(_ID).is(job.getName()).andOperator(conditions));
+        Update update = new Update()
+                .set(OWNER, owner)
+                .set(LEASE_UNTIL, new Date(now.getTime() + job.getLeaseDuration().toMillis()))
+                .set(LAST_STARTED_AT, now)
+                .inc(FENCING_TOKEN, 1);
+        try {
+            // the previous lease is returned, null when this is the first run of the job
+            JobLease previous = mongoTemplate.findAndModify(
+                    query,
+                    update,
+                    FindAndModifyOptions.options().upsert(true).returnNew(false),
+                    JobLease.class
+            );
+            if (null == previous) {
+                return 1L;
+            }
+            if (null != job.getInterval() && null != previous.getLastStartedAt()) {
+                long dueAt = previous.getLastStartedAt().getTime() + job.getInterval().toMillis();
+                Timer.builder(JOB_LAG)
+                        .tag(JOB, job.getName())
+                        .register(meterRegistry)
+                        .record(Math.max(0, now.getTime() - dueAt), TimeUnit.MILLISECONDS);
+            }
+            return previous.getFencingToken() + 1;
+        } catch (DuplicateKeyException e) {
+            // the lease document exists but is held, the job is not due or has completed, the upsert collided on _id
+            return null;
+        }
+    }
+
+    private void renewLease(ClusterJob job, long fencingToken) {
+        Query query = new Query(Criteria.where(_ID).is(job.getName()).and(FENCING_TOKEN).is(fencingToken));
+        Update update = new Update().set(LEASE_UNTIL, new Date(System.currentTimeMillis() + job.getLeaseDuration().toMillis()));
+        if (mongoTemplate.updateFirst(query, update, JobLease.class).getMatchedCount() == 0) {
+            LOGGER.warn("Cluster job '{}' lost its lease with fencing token {}", job.getName(), fencingToken);
+        }
+    }
+
+    private void releaseLease(ClusterJob job, long fencingToken, long durationMs, String outcome) {
+        Date now = new Date();
+        Query query = new Query(Criteria.where(_ID).is(job.getName()).and(FENCING_TOKEN).is(fencingToken));
+        Update update = new Update()
+                .set(LEASE_UNTIL, now)
+                .set(LAST_FINISHED_AT, now)
+                .set(LAST_DURATION_MS, durationMs)
+                .set(LAST_OUTCOME, outcome);
+        if (SUCCESS.equals(outcome)) {
+            update.set(LAST_COMPLETED_AT, now);
+        }
+        mongoTemplate.updateFirst(query, update, JobLease.class);
+    }
+
+    private static String instanceName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            return "unknown";
+        }
+    }
+}
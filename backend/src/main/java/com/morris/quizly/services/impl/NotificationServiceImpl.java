@@ -19,6 +19,9 @@ public class NotificationServiceImpl implements NotificationService {
     @Value("${sns.systemsFlaggingTopicArn}")
     private String snsSystemsFlaggingTopicArn;
 
+    @Value("${security.signup-token.ttl-hours}")
+    private long signupTokenTtlHours;
+
     private final AmazonSNS amazonSNSClient;
     private final EmailService emailService;
 
@@ -69,7 +72,9 @@ public class NotificationServiceImpl implements NotificationService {
         String confirmationLink = DEV_CONFIRMATION_LINK + token;
         String emailBody = String.format(
                 "Welcome to Quizly, %s! We're excited you've decided to join this educational journey with us.\n" +
-                        "Please confirm your subscription by clicking the link below:\n\n" + confirmationLink, user.getFirstName()
+                        "Please confirm your subscription by clicking the link below, it expires in %d hours. After that " +
+                        "you can request a new link from the login page.\n\n" + confirmationLink,
+                user.getFirstName(), signupTokenTtlHours
         );
         emailService.sendEmail(user.getEmailAddress(), "Quizly Signup Confirmation", emailBody);
     }
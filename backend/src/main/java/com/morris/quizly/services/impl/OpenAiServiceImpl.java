@@ -4,19 +4,21 @@ import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.model.search.FieldSearchPath;
 import com.mongodb.client.model.search.SearchPath;
+import com.morris.quizly.configurations.MongoIndexConfiguration;
 import com.morris.quizly.models.locales.Language;
 import com.morris.quizly.models.quiz.Quiz;
+import com.morris.quizly.models.quiz.QuizGeneration;
+import com.morris.quizly.models.quiz.QuizParser;
+import com.morris.quizly.models.quiz.QuizRequest;
+import com.morris.quizly.models.quiz.QuizlyQuestionGroup;
 import com.morris.quizly.models.security.ConfigurationComponent;
 import com.morris.quizly.models.system.SystemAi;
 import com.morris.quizly.services.OpenAiService;
-import dev.langchain4j.model.chat.ChatLanguageModel;
+import com.morris.quizly.services.SemanticCacheService;
+import com.morris.quizly.utils.PromptUtil;
+import com.morris.quizly.utils.SingleFlight;
 import dev.langchain4j.model.embedding.EmbeddingModel;
-import dev.langchain4j.model.openai.OpenAiChatModel;
-import dev.langchain4j.model.openai.OpenAiEmbeddingModel;
-import dev.langchain4j.model.openai.OpenAiEmbeddingModelName;
-import dev.langchain4j.service.AiServices;
-import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.text.PDFTextStripper;
+import dev.langchain4j.service.TokenStream;
 import org.bson.codecs.configuration.CodecRegistry;
 import org.bson.conversions.Bson;
 import org.slf4j.Logger;
@@ -25,67 +27,64 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
 
-import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static com.mongodb.client.model.Aggregates.*;
 import static com.mongodb.client.model.Filters.and;
 import static com.mongodb.client.model.Filters.eq;
 import static com.mongodb.client.model.Projections.*;
+import static com.mongodb.client.model.search.VectorSearchOptions.vectorSearchOptions;
 import static java.util.Arrays.asList;
 
 @Service
 public class OpenAiServiceImpl implements OpenAiService {
     private static final Logger LOGGER = LoggerFactory.getLogger(OpenAiServiceImpl.class);
 
-    private static final String GPT_4o = "gpt-4o";
-
     private static final String QUIZ_GENERATION_ERROR = "Error generating quiz response: {}";
-    private static final String ERROR_EXTRACTING_PDF_CONTENT = "Error extracting PDF content: {}";
-    private static final String NO_TEXT_EXTRACTED = "No text extracted from PDF content.";
+    private static final String NO_QUIZ_TEXT = "No quiz text to embed.";
     private static final String UNSUCCESSFUL = "Unsuccessful";
+    private static final String ACCESS_DENIED = "access denied";
+    private static final String BASIC_QUIZ_PROMPT = "Generate %d questions. %s";
 
-    private static final String PDF_VECTOR_INDEX = "quiz_pdf_vector_index";
     private static final String USER_ID = "userId";
     private static final String LANGUAGE = "language";
     private static final String SCORE = "score";
-    private static final String _ID = "_id";
-    private static final String QUIZ_TITLE = "quizTitle";
     private static final String QUESTIONS_GROUP = "questionsGroup";
-    private static final String PDF_CONTENT = "pdfContent";
     private static final String PDF_EMBEDDINGS = "pdfEmbeddings";
-    private static final String PDF_IMAGE = "pdfImage";
     private static final String QUIZZES = "quizzes";
 
-    private final ConfigurationComponent configurationComponent;;
     private final MongoTemplate mongoTemplate;
     private final CodecRegistry codecRegistry;
+    private final SystemAi systemAi;
+    private final EmbeddingModel embeddingModel;
+    private final SemanticCacheService semanticCacheService;
+    private final ConfigurationComponent configurationComponent;
+    private final SingleFlight<String, QuizGeneration> basicQuizGenerations = new SingleFlight<>();
 
     @Autowired
-    public OpenAiServiceImpl(ConfigurationComponent configurationComponent,
-                             MongoTemplate mongoTemplate,
-                             CodecRegistry codecRegistry) {
-        this.configurationComponent = configurationComponent;
+    public OpenAiServiceImpl(MongoTemplate mongoTemplate,
+                             CodecRegistry codecRegistry,
+                             SystemAi systemAi,
+                             EmbeddingModel embeddingModel,
+                             SemanticCacheService semanticCacheService,
+                             ConfigurationComponent configurationComponent) {
         this.mongoTemplate = mongoTemplate;
         this.codecRegistry = codecRegistry;
+        this.systemAi = systemAi;
+        this.embeddingModel = embeddingModel;
+        this.semanticCacheService = semanticCacheService;
+        this.configurationComponent = configurationComponent;
     }
 
     @Override
     public String generateBasicQuizResponse(String prompt, Language language) {
         String systemAiResponse = null;
         try {
-            ChatLanguageModel chatLanguageModel = OpenAiChatModel.builder()
-                    .apiKey(configurationComponent.getOpenAiApiKey())
-                    .modelName(GPT_4o)
-                    .timeout(Duration.ofSeconds(30))
-                    .build();
-
-            SystemAi systemAi = AiServices.builder(SystemAi.class)
-                    .chatLanguageModel(chatLanguageModel)
-                    .build();
-
             switch(language) {
                 case EN -> systemAiResponse = systemAi.openAiQuizPromptEN(prompt);
                 case BG -> systemAiResponse = systemAi.openAiQuizPromptBG(prompt);
@@ -98,13 +97,62 @@ public class OpenAiServiceImpl implements OpenAiService {
     }
 
     @Override
-    public String generateQuizResponseWithDocumentContext(String userId, String prompt, Language language) {
-        EmbeddingModel embeddingModel = new OpenAiEmbeddingModel.OpenAiEmbeddingModelBuilder()
-                .modelName(OpenAiEmbeddingModelName.TEXT_EMBEDDING_ADA_002)
-                .apiKey(configurationComponent.getOpenAiApiKey())
-                .maxRetries(2)
+    public QuizGeneration generateBasicQuiz(QuizRequest quizRequest) {
+        String prompt = String.format(BASIC_QUIZ_PROMPT, quizRequest.getNumberOfQuestions(), quizRequest.getPrompt());
+        // failed and refused generations are never cached or parsed, a refusal has to reach the flagging process
+        Supplier<QuizGeneration> generation = () -> {
+            String response = semanticCacheService.getOrGenerate(
+                    quizRequest,
+                    () -> generateBasicQuizResponse(prompt, quizRequest.getLanguage()),
+                    this::isSuccessfulResponse
+            );
+            return QuizGeneration.builder()
+                    .response(response)
+                    .parseResult(isSuccessfulResponse(response) ? QuizParser.parse(response, quizRequest.getLanguage()) : null)
+                    .build();
+        };
+        if (quizRequest.isBypassCache()) {
+            return generation.get();
+        }
+        // identical requests in flight at the same time wait for and share one generation and its parse
+        String key = quizRequest.getLanguage().name() + ':' + quizRequest.getNumberOfQuestions() + ':'
+                + PromptUtil.normalize(quizRequest.getPrompt());
+        // waiting is bounded by the chat model's own timeout and retries, the bound of the generation itself
+        Duration timeout = Duration.ofSeconds(configurationComponent.getOpenAiChatTimeoutSeconds())
+                .multipliedBy(configurationComponent.getOpenAiChatMaxRetries() + 1L);
+        try {
+            return basicQuizGenerations.execute(key, generation, timeout);
+        } catch (TimeoutException e) {
+            LOGGER.error(QUIZ_GENERATION_ERROR, "timed out waiting for an identical generation in flight");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.error(QUIZ_GENERATION_ERROR, "interrupted waiting for an identical generation in flight");
+        }
+        return QuizGeneration.builder()
+                .response(UNSUCCESSFUL)
                 .build();
+    }
+
+    private boolean isSuccessfulResponse(String response) {
+        return null != response && !response.equals(UNSUCCESSFUL) && !response.equalsIgnoreCase(ACCESS_DENIED);
+    }
+
+    @Override
+    public void streamBasicQuizResponse(String prompt, Language language, Consumer<String> onToken,
+                                        Consumer<String> onComplete, Consumer<Throwable> onError) {
+        TokenStream tokenStream = switch (language) {
+            case EN -> systemAi.streamOpenAiQuizPromptEN(prompt);
+            case BG -> systemAi.streamOpenAiQuizPromptBG(prompt);
+        };
+        tokenStream
+                .onNext(onToken)
+                .onComplete(response -> onComplete.accept(response.content().text()))
+                .onError(onError)
+                .start();
+    }
 
+    @Override
+    public String generateQuizResponseWithDocumentContext(String userId, String prompt, Language language) {
         // We can get the matching documents in our vector from the prompt and collect
         // the questionsGroups and pass this as context to our AI system. This ensures
         // we generate unique quizzes
@@ -116,16 +164,6 @@ public class OpenAiServiceImpl implements OpenAiService {
                 questionsGroups.add(quiz.getQuestionsGroup().toString());
             }
         });
-        ChatLanguageModel chatLanguageModel = OpenAiChatModel.builder()
-                .apiKey(configurationComponent.getOpenAiApiKey())
-                .modelName(GPT_4o)
-                .timeout(Duration.ofSeconds(30))
-                .build();
-
-        SystemAi systemAi = AiServices.builder(SystemAi.class)
-                .chatLanguageModel(chatLanguageModel)
-                .build();
-
         String systemAiResponse = null;
         switch(language) {
             case EN -> systemAiResponse = systemAi.openAiWithContextQuizPromptEN(
@@ -141,27 +179,41 @@ public class OpenAiServiceImpl implements OpenAiService {
     }
 
     @Override
-    public List<Double> embedWithOpenAiAda002TextEmbeddings(byte[] pdfContent) {
-        String pdfTextContent;
-
-        try (PDDocument document = PDDocument.load(pdfContent)) {
-            PDFTextStripper pdfTextStripper = new PDFTextStripper();
-            pdfTextContent = pdfTextStripper.getText(document);
-        } catch (IOException e) {
-            LOGGER.info(ERROR_EXTRACTING_PDF_CONTENT, e.getMessage());
-            return new ArrayList<>();
+    public float[] embedWithOpenAiAda002TextEmbeddings(String quizTitle, List<QuizlyQuestionGroup> questionGroups) {
+        String quizTextContent = buildQuizEmbeddingText(quizTitle, questionGroups);
+        if (!quizTextContent.isEmpty()) {
+            return embeddingModel.embed(quizTextContent).content().vector();
         }
-        if (null != pdfTextContent && !pdfTextContent.isEmpty()) {
-            EmbeddingModel embeddingModel = new OpenAiEmbeddingModel.OpenAiEmbeddingModelBuilder()
-                    .modelName(OpenAiEmbeddingModelName.TEXT_EMBEDDING_ADA_002)
-                    .apiKey(configurationComponent.getOpenAiApiKey())
-                    .maxRetries(2)
-                    .build();
-            List<Float> embeddings = embeddingModel.embed(pdfTextContent).content().vectorAsList();
-            return embeddings.stream().mapToDouble(f -> f).boxed().toList();
+        LOGGER.warn(NO_QUIZ_TEXT);
+        return null;
+    }
+
+    /**
+     * Builds the canonical embedding input of a quiz: the title followed by each question, its
+     * options in order, and its answer, one per line.
+     *
+     * @param quizTitle      {@link String} quiz title
+     * @param questionGroups {@link List<QuizlyQuestionGroup>} quiz question groups
+     *
+     * @return {@link String} embedding input, empty if there is nothing to embed
+     */
+    private String buildQuizEmbeddingText(String quizTitle, List<QuizlyQuestionGroup> questionGroups) {
+        StringBuilder quizText = new StringBuilder();
+        if (null != quizTitle && !quizTitle.isBlank()) {
+            quizText.append(quizTitle.trim()).append('\n');
+        }
+        if (null != questionGroups) {
+            for (QuizlyQuestionGroup questionGroup : questionGroups) {
+                quizText.append(questionGroup.getQuestion()).append('\n');
+                if (null != questionGroup.getOptions()) {
+                    for (String option : questionGroup.getOptions()) {
+                        quizText.append(option).append('\n');
+                    }
+                }
+                quizText.append(questionGroup.getAnswer()).append('\n');
+            }
         }
-        LOGGER.warn(NO_TEXT_EXTRACTED);
-        return new ArrayList<>();
+        return quizText.toString().trim();
     }
 
     @Override
@@ -181,30 +233,24 @@ public class OpenAiServiceImpl implements OpenAiService {
                 int candidates = 200;
                 int limit = 10;
 
-                // can can filter further to ensure documents are matched by user
-                // and document language
+                // the user and language filter runs inside the vector search, so candidates and
+                // the limit are spent on this user's quizzes only. Only the fields needed as
+                // generation context are returned
                 List<Bson> pipeline = asList(
                         vectorSearch(
                                 fieldSearchPath,
                                 promptEmbedding,
-                                PDF_VECTOR_INDEX,
+                                MongoIndexConfiguration.QUIZ_VECTOR_INDEX,
                                 candidates,
-                                limit
+                                limit,
+                                vectorSearchOptions().filter(and(
+                                        eq(USER_ID, userId),
+                                        eq(LANGUAGE, language.name())
+                                ))
                         ),
-                        match(and(
-                                eq(USER_ID, userId),
-                                eq(LANGUAGE, language)
-                        )),
                         project(
                                fields(metaVectorSearchScore(SCORE),
-                                       include(_ID),
-                                       include(USER_ID),
-                                       include(QUIZ_TITLE),
-                                       include(QUESTIONS_GROUP),
-                                       include(PDF_CONTENT),
-                                       include(PDF_EMBEDDINGS),
-                                       include(PDF_IMAGE),
-                                       include(LANGUAGE)
+                                       include(QUESTIONS_GROUP)
                                )
                         )
                 );
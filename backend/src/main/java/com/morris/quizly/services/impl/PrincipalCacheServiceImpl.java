@@ -0,0 +1,78 @@
+package com.morris.quizly.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.morris.quizly.models.security.ConfigurationComponent;
+import com.morris.quizly.models.security.UserDetails;
+import com.morris.quizly.services.PrincipalCacheService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Principals are cached per username for a bounded time. Changes made by this instance (lock,
+ * password and enabled status) evict the principal right away; the expiry bounds how long changes
+ * made elsewhere stay unseen.
+ */
+@Service
+public class PrincipalCacheServiceImpl implements PrincipalCacheService {
+
+    private static final String PRINCIPAL_CACHE = "principalCache";
+
+    private static final String _ID = "_id";
+    private static final String USERNAME = "username";
+    private static final String ROLES = "roles";
+    private static final String ACCOUNT_NON_EXPIRED = "accountNonExpired";
+    private static final String ACCOUNT_NON_LOCKED = "accountNonLocked";
+    private static final String CREDENTIALS_NON_EXPIRED = "credentialsNonExpired";
+    private static final String ENABLED = "enabled";
+
+    private final MongoTemplate mongoTemplate;
+    private final Cache<String, UserDetails> principals;
+
+    @Autowired
+    public PrincipalCacheServiceImpl(MongoTemplate mongoTemplate, ConfigurationComponent configurationComponent,
+                                     MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(configurationComponent.getPrincipalCacheMaxSize())
+                .expireAfterWrite(Duration.ofSeconds(configurationComponent.getPrincipalCacheTtlSeconds()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, principals, PRINCIPAL_CACHE);
+    }
+
+    @Override
+    public UserDetails getPrincipal(String username) {
+        // missing users are not cached, the loader returning null leaves no entry
+        return principals.get(username, this::loadPrincipal);
+    }
+
+    @Override
+    public void invalidate(String username) {
+        if (null != username) {
+            principals.invalidate(username);
+        }
+    }
+
+    /**
+     * Reads the user fields needed for authorization. The avatar reference, password and system
+     * flags are left in the database.
+     *
+     * @param username {@link String} username
+     *
+     * @return {@link UserDetails} principal
+     */
+    private UserDetails loadPrincipal(String username) {
+        Query query = new Query(Criteria.where(USERNAME).is(username));
+        query.fields().include(_ID, USERNAME, ROLES, ACCOUNT_NON_EXPIRED, ACCOUNT_NON_LOCKED,
+                CREDENTIALS_NON_EXPIRED, ENABLED);
+        return mongoTemplate.findOne(query, UserDetails.class);
+    }
+}
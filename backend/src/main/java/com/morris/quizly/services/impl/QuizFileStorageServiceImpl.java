@@ -0,0 +1,151 @@
+package com.morris.quizly.services.impl;
+
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.morris.quizly.models.quiz.Quiz;
+import com.morris.quizly.models.quiz.QuizFile;
+import com.morris.quizly.services.QuizFileStorageService;
+import com.morris.quizly.utils.FileUtil;
+import org.bson.Document;
+import org.bson.types.Binary;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+
+@Service
+public class QuizFileStorageServiceImpl implements QuizFileStorageService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(QuizFileStorageServiceImpl.class);
+
+    private final GridFsTemplate gridFsTemplate;
+    private final MongoTemplate mongoTemplate;
+
+    private static final String _ID = "_id";
+    private static final String QUIZ_ID = "quizId";
+    private static final String PDF_FILE_ID = "pdfFileId";
+    private static final String THUMBNAIL_FILE_ID = "thumbnailFileId";
+
+    // quiz documents written before binary storage moved to GridFS
+    private static final String LEGACY_PDF_CONTENT = "pdfContent";
+    private static final String LEGACY_PDF_IMAGE = "pdfImage";
+    private static final String LEGACY_THUMBNAIL = "thumbnail";
+    private static final String LEGACY_THUMBNAIL_CONTENT_TYPE = "thumbnailContentType";
+
+    private static final String PDF_FILE_NAME = "quiz-%s.pdf";
+    private static final String THUMBNAIL_FILE_NAME = "quiz-%s-thumbnail";
+
+    @Autowired
+    public QuizFileStorageServiceImpl(GridFsTemplate gridFsTemplate, MongoTemplate mongoTemplate) {
+        this.gridFsTemplate = gridFsTemplate;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public ObjectId storeQuizPdf(ObjectId quizId, byte[] pdfContent) {
+        return gridFsTemplate.store(
+                new ByteArrayInputStream(pdfContent),
+                String.format(PDF_FILE_NAME, quizId.toHexString()),
+                MediaType.APPLICATION_PDF_VALUE,
+                new Document(QUIZ_ID, quizId)
+        );
+    }
+
+    @Override
+    public ObjectId storeQuizThumbnail(ObjectId quizId, byte[] data, String contentType) {
+        return gridFsTemplate.store(
+                new ByteArrayInputStream(data),
+                String.format(THUMBNAIL_FILE_NAME, quizId.toHexString()),
+                contentType,
+                new Document(QUIZ_ID, quizId)
+        );
+    }
+
+    @Override
+    public QuizFile getQuizPdf(String quizId) {
+        Document quiz = findQuizFields(quizId, PDF_FILE_ID, LEGACY_PDF_CONTENT);
+        if (null == quiz) {
+            return null;
+        }
+        ObjectId pdfFileId = quiz.getObjectId(PDF_FILE_ID);
+        if (null != pdfFileId) {
+            return getStoredFile(pdfFileId);
+        }
+        // quizzes that have not been migrated to GridFS yet still carry the PDF inline
+        Binary legacyPdf = quiz.get(LEGACY_PDF_CONTENT, Binary.class);
+        return null != legacyPdf ? inMemoryFile(legacyPdf.getData(), MediaType.APPLICATION_PDF_VALUE) : null;
+    }
+
+    @Override
+    public QuizFile getQuizThumbnail(String quizId) {
+        Document quiz = findQuizFields(quizId, THUMBNAIL_FILE_ID, LEGACY_THUMBNAIL, LEGACY_THUMBNAIL_CONTENT_TYPE, LEGACY_PDF_IMAGE);
+        if (null == quiz) {
+            return null;
+        }
+        ObjectId thumbnailFileId = quiz.getObjectId(THUMBNAIL_FILE_ID);
+        if (null != thumbnailFileId) {
+            return getStoredFile(thumbnailFileId);
+        }
+        Binary legacyThumbnail = quiz.get(LEGACY_THUMBNAIL, Binary.class);
+        if (null != legacyThumbnail) {
+            return inMemoryFile(legacyThumbnail.getData(), quiz.getString(LEGACY_THUMBNAIL_CONTENT_TYPE));
+        }
+        String legacyPdfImage = quiz.getString(LEGACY_PDF_IMAGE);
+        if (null != legacyPdfImage) {
+            return inMemoryFile(FileUtil.base64DecodeDataUri(legacyPdfImage), FileUtil.dataUriContentType(legacyPdfImage));
+        }
+        return null;
+    }
+
+    @Override
+    public void deleteFile(ObjectId fileId) {
+        gridFsTemplate.delete(new Query(Criteria.where(_ID).is(fileId)));
+    }
+
+    /**
+     * Read only the given fields of a quiz, never the whole document.
+     *
+     * @param quizId {@link String} quizId
+     * @param fields {@link String} fields to include
+     *
+     * @return {@link Document} or null if no quiz matches
+     */
+    private Document findQuizFields(String quizId, String... fields) {
+        if (!ObjectId.isValid(quizId)) {
+            return null;
+        }
+        Query query = new Query(Criteria.where(_ID).is(new ObjectId(quizId)));
+        query.fields().include(fields);
+        return mongoTemplate.findOne(query, Document.class, mongoTemplate.getCollectionName(Quiz.class));
+    }
+
+    private QuizFile getStoredFile(ObjectId fileId) {
+        GridFSFile file = gridFsTemplate.findOne(new Query(Criteria.where(_ID).is(fileId)));
+        if (null == file) {
+            LOGGER.warn("Stored quiz file '{}' not found", fileId);
+            return null;
+        }
+        GridFsResource resource = gridFsTemplate.getResource(file);
+        return QuizFile.builder()
+                .resource(resource)
+                .contentType(resource.getContentType())
+                .contentLength(file.getLength())
+                .build();
+    }
+
+    private QuizFile inMemoryFile(byte[] data, String contentType) {
+        return QuizFile.builder()
+                .resource(new ByteArrayResource(data))
+                .contentType(contentType)
+                .contentLength(data.length)
+                .build();
+    }
+}
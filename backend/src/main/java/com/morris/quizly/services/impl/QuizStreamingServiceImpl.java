@@ -0,0 +1,135 @@
+package com.morris.quizly.services.impl;
+
+import com.morris.quizly.configurations.ExecutorConfiguration;
+import com.morris.quizly.models.quiz.QuizParser;
+import com.morris.quizly.models.quiz.QuizRequest;
+import com.morris.quizly.models.quiz.QuizStreamParser;
+import com.morris.quizly.models.quiz.QuizlyQuestionGroup;
+import com.morris.quizly.models.security.ConfigurationComponent;
+import com.morris.quizly.models.system.Flag;
+import com.morris.quizly.models.system.FlagType;
+import com.morris.quizly.models.system.SystemFlag;
+import com.morris.quizly.services.OpenAiService;
+import com.morris.quizly.services.QuizStreamingService;
+import com.morris.quizly.services.QuizlyDocumentService;
+import com.morris.quizly.services.SystemFlaggingService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Tokens are parsed on the thread delivering the stream and each completed question group is sent
+ * right away. The full response is handed to the stream completion executor, which runs the same parse,
+ * PDF, thumbnail and embedding stages as the blocking endpoint. Completion waits on stages submitted to
+ * the quiz pipeline executor, so it must not run on that executor itself.
+ */
+@Service
+public class QuizStreamingServiceImpl implements QuizStreamingService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(QuizStreamingServiceImpl.class);
+
+    private static final String BASIC_QUIZ_PROMPT = "Generate %d questions. %s";
+    private static final String ACCESS_DENIED = "access denied";
+    private static final String UNSUCCESSFUL = "Unsuccessful";
+
+    private static final String QUESTION_EVENT = "question";
+    private static final String COMPLETE_EVENT = "complete";
+    private static final String FLAGGED_EVENT = "flagged";
+    private static final String ERROR_EVENT = "error";
+
+    private final OpenAiService openAiService;
+    private final QuizlyDocumentService quizlyDocumentService;
+    private final SystemFlaggingService systemFlaggingService;
+    private final AsyncTaskExecutor quizStreamCompletionExecutor;
+    private final ConfigurationComponent configurationComponent;
+
+    @Autowired
+    public QuizStreamingServiceImpl(OpenAiService openAiService, QuizlyDocumentService quizlyDocumentService,
+                                    SystemFlaggingService systemFlaggingService,
+                                    @Qualifier(ExecutorConfiguration.QUIZ_STREAM_COMPLETION_EXECUTOR) AsyncTaskExecutor quizStreamCompletionExecutor,
+                                    ConfigurationComponent configurationComponent) {
+        this.openAiService = openAiService;
+        this.quizlyDocumentService = quizlyDocumentService;
+        this.systemFlaggingService = systemFlaggingService;
+        this.quizStreamCompletionExecutor = quizStreamCompletionExecutor;
+        this.configurationComponent = configurationComponent;
+    }
+
+    @Override
+    public SseEmitter streamBasicQuiz(QuizRequest quizRequest) {
+        SseEmitter emitter = new SseEmitter(configurationComponent.getQuizStreamTimeoutMs());
+        QuizStreamParser parser = new QuizStreamParser(quizRequest.getLanguage());
+        String prompt = String.format(BASIC_QUIZ_PROMPT, quizRequest.getNumberOfQuestions(), quizRequest.getPrompt());
+        try {
+            openAiService.streamBasicQuizResponse(
+                    prompt,
+                    quizRequest.getLanguage(),
+                    token -> parser.accept(token).forEach(group -> send(emitter, QUESTION_EVENT, group)),
+                    response -> {
+                        parser.finish().forEach(group -> send(emitter, QUESTION_EVENT, group));
+                        try {
+                            quizStreamCompletionExecutor.execute(() -> completeQuiz(emitter, quizRequest, response));
+                        } catch (TaskRejectedException e) {
+                            fail(emitter, e);
+                        }
+                    },
+                    error -> fail(emitter, error)
+            );
+        } catch (Exception e) {
+            fail(emitter, e);
+        }
+        return emitter;
+    }
+
+    private void completeQuiz(SseEmitter emitter, QuizRequest quizRequest, String response) {
+        try {
+            if (null == response || response.isBlank()) {
+                send(emitter, ERROR_EVENT, UNSUCCESSFUL);
+            } else if (response.trim().equalsIgnoreCase(ACCESS_DENIED)) {
+                SystemFlag systemFlag = SystemFlag.builder()
+                        .flagType(FlagType.MALICIOUS_ACTIVITY)
+                        .timestamp(Instant.now())
+                        .build();
+                Flag accountFlag = systemFlaggingService.insertFlag(quizRequest.getUserId(), systemFlag);
+                LOGGER.info("Account flagged: {}, for user: {}", accountFlag, quizRequest.getUserId());
+                send(emitter, FLAGGED_EVENT, accountFlag);
+            } else {
+                List<QuizlyQuestionGroup> quiz = quizlyDocumentService.generateQuizlyPDF(
+                        QuizParser.parse(response, quizRequest.getLanguage()),
+                        quizRequest
+                );
+                send(emitter, quiz.isEmpty() ? ERROR_EVENT : COMPLETE_EVENT, quiz.isEmpty() ? UNSUCCESSFUL : quiz);
+            }
+            emitter.complete();
+        } catch (Exception e) {
+            fail(emitter, e);
+        }
+    }
+
+    private void fail(SseEmitter emitter, Throwable error) {
+        LOGGER.error("Error streaming quiz: {}", error.getMessage());
+        send(emitter, ERROR_EVENT, UNSUCCESSFUL);
+        emitter.complete();
+    }
+
+    /**
+     * Send an event. A client that has gone away only loses the events, the quiz is still completed
+     * and saved.
+     */
+    private void send(SseEmitter emitter, String event, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+        } catch (IOException | IllegalStateException e) {
+            LOGGER.debug("Unable to send '{}' event: {}", event, e.getMessage());
+        }
+    }
+}
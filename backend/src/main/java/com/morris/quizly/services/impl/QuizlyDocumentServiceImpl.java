@@ -1,41 +1,60 @@
 package com.morris.quizly.services.impl;
 
+import com.morris.quizly.configurations.ExecutorConfiguration;
 import com.morris.quizly.models.locales.Language;
+import com.morris.quizly.models.pdf.PdfFontPool;
+import com.morris.quizly.models.pdf.QuizThumbnail;
 import com.morris.quizly.models.quiz.Quiz;
+import com.morris.quizly.models.quiz.QuizCursor;
+import com.morris.quizly.models.quiz.QuizParseResult;
 import com.morris.quizly.models.quiz.QuizRequest;
+import com.morris.quizly.models.quiz.QuizSummary;
+import com.morris.quizly.models.quiz.QuizSummaryCursorPage;
 import com.morris.quizly.models.quiz.QuizlyQuestionGroup;
+import com.morris.quizly.models.security.ConfigurationComponent;
 import com.morris.quizly.repositories.QuizRepository;
 import com.morris.quizly.services.OpenAiService;
+import com.morris.quizly.services.QuizFileStorageService;
 import com.morris.quizly.services.QuizlyDocumentService;
-import com.morris.quizly.utils.FileUtil;
+import com.morris.quizly.services.ThumbnailService;
+import com.morris.quizly.utils.CursorUtil;
+import org.apache.fontbox.ttf.TrueTypeFont;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.font.PDType0Font;
-import org.apache.pdfbox.rendering.ImageType;
-import org.apache.pdfbox.rendering.PDFRenderer;
-import org.jetbrains.annotations.NotNull;
+import org.bson.types.ObjectId;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.ClassPathResource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
-import static com.morris.quizly.models.locales.Language.BG;
-import static com.morris.quizly.models.locales.Language.EN;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 @Service
 public class QuizlyDocumentServiceImpl implements QuizlyDocumentService {
@@ -43,25 +62,57 @@ public class QuizlyDocumentServiceImpl implements QuizlyDocumentService {
 
     private final OpenAiService openAiService;
     private final QuizRepository quizRepository;
-
-    private static final String DEJAVU_SANS_FONT = "/fonts/DejaVuSans.ttf";
+    private final ConfigurationComponent configurationComponent;
+    private final AsyncTaskExecutor quizPipelineExecutor;
+    private final PdfFontPool pdfFontPool;
+    private final ThumbnailService thumbnailService;
+    private final MongoTemplate mongoTemplate;
+    private final QuizFileStorageService quizFileStorageService;
 
     private static final String QUIZ_SPLIT_REGEX_EN = "Answer Key:";
     private static final String QUIZ_TITLE_REGEX_EN = "Quiz Title: ";
     private static final String QUIZ_SPLIT_REGEX_BG = "Ключ за отговори:";
     private static final String QUIZ_TITLE_REGEX_BG = "Заглавие на теста: ";
-    private static final String NO_ANSWER_PROVIDED = "No answer provided";
+
+    private static final String EMBEDDING_STAGE = "embedding";
+    private static final String THUMBNAIL_STAGE = "thumbnail";
+
+    private static final String _ID = "_id";
+    private static final String THUMBNAIL_FILE_ID = "thumbnailFileId";
+    private static final String USER_ID = "userId";
+    private static final String QUIZ_TITLE = "quizTitle";
+    private static final String LANGUAGE = "language";
+    private static final String CREATED_DATE = "createdDate";
+    private static final String QUESTIONS_GROUP = "questionsGroup";
+    private static final String QUESTION_COUNT = "questionCount";
+    private static final String THUMBNAIL_URL = "/api/quiz-retrieval/quizzes/%s/thumbnail";
 
     @Autowired
-    public QuizlyDocumentServiceImpl(QuizRepository quizRepository, OpenAiService openAiService) {
+    public QuizlyDocumentServiceImpl(QuizRepository quizRepository, OpenAiService openAiService,
+                                     ConfigurationComponent configurationComponent,
+                                     @Qualifier(ExecutorConfiguration.QUIZ_PIPELINE_EXECUTOR) AsyncTaskExecutor quizPipelineExecutor,
+                                     PdfFontPool pdfFontPool, ThumbnailService thumbnailService,
+                                     MongoTemplate mongoTemplate, QuizFileStorageService quizFileStorageService) {
         this.quizRepository = quizRepository;
         this.openAiService = openAiService;
+        this.configurationComponent = configurationComponent;
+        this.quizPipelineExecutor = quizPipelineExecutor;
+        this.pdfFontPool = pdfFontPool;
+        this.thumbnailService = thumbnailService;
+        this.mongoTemplate = mongoTemplate;
+        this.quizFileStorageService = quizFileStorageService;
     }
 
     @Override
-    public Page<Quiz> getQuizzesByUserIdDescending(String userId, Pageable pageable) {
+    public Page<QuizSummary> getQuizSummariesByUserIdDescending(String userId, Pageable pageable) {
         try {
-            return quizRepository.findQuizzesByUserIdDescending(userId, pageable);
+            Criteria userQuizzes = Criteria.where(USER_ID).is(userId);
+            List<QuizSummary> summaries = findQuizSummaries(userQuizzes, pageable.getOffset(), pageable.getPageSize());
+            return PageableExecutionUtils.getPage(
+                    summaries,
+                    pageable,
+                    () -> mongoTemplate.count(new Query(userQuizzes), Quiz.class)
+            );
         } catch (Exception e) {
             LOGGER.info("Error finding quizzes with id '{}': {}", userId, e.getMessage());
             return null;
@@ -69,32 +120,110 @@ public class QuizlyDocumentServiceImpl implements QuizlyDocumentService {
     }
 
     @Override
-    public List<QuizlyQuestionGroup> generateQuizlyPDF(String text, QuizRequest quizRequest) {
-        String QUIZ_SPLIT_REGEX = "";
-
-        if (quizRequest.getLanguage().equals(EN)) {
-            QUIZ_SPLIT_REGEX = QUIZ_SPLIT_REGEX_EN;
-        } else if (quizRequest.getLanguage().equals(BG)) {
-            QUIZ_SPLIT_REGEX = QUIZ_SPLIT_REGEX_BG;
+    public QuizSummaryCursorPage getQuizSummariesByUserIdAfterCursor(String userId, QuizCursor cursor, int size) {
+        try {
+            Criteria userQuizzes = Criteria.where(USER_ID).is(userId);
+            if (null != cursor) {
+                // seek past the last returned quiz instead of skipping, deep pages cost the same as the first.
+                // Quizzes without a createdDate sort after all dated quizzes, ordered by _id only.
+                if (null != cursor.getCreatedDate()) {
+                    userQuizzes = userQuizzes.orOperator(
+                            Criteria.where(CREATED_DATE).lt(cursor.getCreatedDate()),
+                            Criteria.where(CREATED_DATE).is(cursor.getCreatedDate()).and(_ID).lt(cursor.getId()),
+                            Criteria.where(CREATED_DATE).is(null)
+                    );
+                } else {
+                    userQuizzes = userQuizzes.and(CREATED_DATE).is(null).and(_ID).lt(cursor.getId());
+                }
+            }
+            // one extra quiz tells if a next page exists without counting
+            List<QuizSummary> summaries = new ArrayList<>(findQuizSummaries(userQuizzes, 0, size + 1));
+            String nextCursor = null;
+            if (summaries.size() > size) {
+                summaries = summaries.subList(0, size);
+                QuizSummary last = summaries.get(size - 1);
+                nextCursor = CursorUtil.encodeQuizCursor(QuizCursor.builder()
+                        .createdDate(last.getCreatedDate())
+                        .id(last.getId())
+                        .build());
+            }
+            return QuizSummaryCursorPage.builder()
+                    .quizzes(summaries)
+                    .nextCursor(nextCursor)
+                    .build();
+        } catch (Exception e) {
+            LOGGER.info("Error finding quizzes with id '{}': {}", userId, e.getMessage());
+            return null;
         }
+    }
 
-        // Quizzes can be in different languages, therefore we must split the generated quiz at the Answer Key
-        // based on the language. Once this split occurs we can begin generating the document by each of the
-        // sections. Questions section and Answer Key section.
-        String[] quizSections = text.split(QUIZ_SPLIT_REGEX);
-        String questionGroup = quizSections[0].trim();
-        String answerKey = quizSections[1].trim();
-        List<QuizlyQuestionGroup> quizlyQuestionGroup = parseQuiz(questionGroup, answerKey);
+    /**
+     * Reads quiz summaries matching the given criteria, newest first. Only the card fields leave the
+     * database, the question count is computed server side.
+     *
+     * @param criteria {@link Criteria} quizzes to read
+     * @param skip     long: quizzes to skip
+     * @param limit    int: maximum quizzes to read
+     *
+     * @return {@link List<QuizSummary>}
+     */
+    private List<QuizSummary> findQuizSummaries(Criteria criteria, long skip, int limit) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(criteria),
+                Aggregation.sort(Sort.Direction.DESC, CREATED_DATE, _ID),
+                Aggregation.skip(skip),
+                Aggregation.limit(limit),
+                Aggregation.project(QUIZ_TITLE, LANGUAGE, CREATED_DATE)
+                        .and(ArrayOperators.Size.lengthOfArray(
+                                ConditionalOperators.ifNull(QUESTIONS_GROUP).then(Collections.emptyList())
+                        ))
+                        .as(QUESTION_COUNT)
+        );
+        List<QuizSummary> summaries = mongoTemplate.aggregate(aggregation, Quiz.class, QuizSummary.class)
+                .getMappedResults();
+        summaries.forEach(summary -> summary.setThumbnailUrl(
+                String.format(THUMBNAIL_URL, summary.getId().toHexString())
+        ));
+        return summaries;
+    }
+
+    @Override
+    public List<QuizlyQuestionGroup> generateQuizlyPDF(QuizParseResult parseResult, QuizRequest quizRequest) {
+        // Problems the parser could not recover from are reported rather than thrown
+        if (!parseResult.getErrors().isEmpty()) {
+            LOGGER.warn("Quiz parsed with errors for user: {}, errors: {}", quizRequest.getUserId(), parseResult.getErrors());
+        }
+        if (parseResult.getQuestionGroups().isEmpty()) {
+            return Collections.emptyList();
+        }
+        // Requests coalesced on one generation share its parse, each quiz is built from its own copy
+        List<QuizlyQuestionGroup> quizlyQuestionGroup = parseResult.getQuestionGroups().stream()
+                .map(QuizlyQuestionGroup::copy)
+                .collect(Collectors.toCollection(ArrayList::new));
+        String answerKey = parseResult.getAnswerKey();
+        // The embedding is built from the parsed quiz text and is network bound, so it runs on the pipeline
+        // executor while the PDF is written. If it is rejected, fails or misses its deadline the quiz is saved
+        // without embeddings.
+        long embeddingDeadline = deadline(configurationComponent.getQuizPipelineEmbeddingTimeoutMs());
+        Future<float[]> pdfEmbeddingsStage = submitStage(
+                EMBEDDING_STAGE,
+                () -> openAiService.embedWithOpenAiAda002TextEmbeddings(quizRequest.getQuizTitle(), quizlyQuestionGroup)
+        );
         byte[] pdfContent = generatePdf(quizlyQuestionGroup, quizRequest.getQuizTitle(), answerKey, quizRequest.getLanguage());
-        String pdfImage = convertPdfPageToImage(pdfContent);
-        List<Double> pdfEmbeddings = openAiService.embedWithOpenAiAda002TextEmbeddings(pdfContent);
+        float[] pdfEmbeddings = null != pdfEmbeddingsStage
+                ? awaitStage(EMBEDDING_STAGE, pdfEmbeddingsStage, embeddingDeadline, null)
+                : null;
+
+        // The PDF is written to GridFS before the quiz that references it
+        ObjectId quizId = new ObjectId();
+        ObjectId pdfFileId = null != pdfContent ? quizFileStorageService.storeQuizPdf(quizId, pdfContent) : null;
 
         Quiz quiz = Quiz.builder()
+                .id(quizId)
                 .userId(quizRequest.getUserId())
                 .quizTitle(quizRequest.getQuizTitle())
                 .questionsGroup(quizlyQuestionGroup)
-                .pdfContent(pdfContent)
-                .pdfImage(pdfImage)
+                .pdfFileId(pdfFileId)
                 .createdDate(LocalDateTime.now())
                 .language(quizRequest.getLanguage())
                 .pdfEmbeddings(pdfEmbeddings)
@@ -102,97 +231,101 @@ public class QuizlyDocumentServiceImpl implements QuizlyDocumentService {
                 .build();
 
         quizRepository.save(quiz);
+
+        // The thumbnail is not needed to answer the request, it is rendered off the request thread and
+        // added to the saved quiz once ready. A saturated pipeline leaves the quiz without a thumbnail.
+        if (null != pdfContent) {
+            try {
+                quizPipelineExecutor.execute(() -> saveThumbnail(quizId, pdfContent));
+            } catch (RejectedExecutionException e) {
+                LOGGER.warn("Quiz pipeline stage '{}' rejected, saving quiz '{}' without it", THUMBNAIL_STAGE, quizId);
+            }
+        }
         return quizlyQuestionGroup;
     }
 
     /**
-     * The PDF is converted to a png image. Creates a {@link BufferedImage} of the PDF,
-     * and utilizes the {@link FileUtil} to pass that buffered image as a
-     * {@link ByteArrayOutputStream} to return as a base64encoded string.
+     * Computes the deadline, in {@link System#nanoTime()} units, of a pipeline stage started now.
      *
-     * @param pdfContent byte[] pdfContent
+     * @param timeoutMs long stage timeout in milliseconds
      *
-     * @return {@link String} Base64encoded string
+     * @return long deadline
      */
-    private String convertPdfPageToImage(byte[] pdfContent) {
-        try (PDDocument document = PDDocument.load(pdfContent)) {
-            PDFRenderer pdfRenderer = new PDFRenderer(document);
-            BufferedImage bufferedImage = pdfRenderer.renderImageWithDPI(0, 300, ImageType.RGB);
-            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-            ImageIO.write(bufferedImage, "png", outputStream);
-            return FileUtil.base64EncodePDF(outputStream.toByteArray(), "image/png");
-        } catch (IOException e) {
-            LOGGER.error("Error generating image of pdf: {}", e.getMessage());
+    private long deadline(long timeoutMs) {
+        return System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+    }
+
+    /**
+     * Submits a pipeline stage. A saturated pipeline rejects the stage instead of running it on the
+     * calling thread, where its deadline could not be enforced, and the stage counts as failed.
+     *
+     * @param stage {@link String} stage name used for logging
+     * @param task  {@link Callable} stage
+     *
+     * @return {@link Future} running stage, null if the stage was rejected
+     */
+    private <T> Future<T> submitStage(String stage, Callable<T> task) {
+        try {
+            return quizPipelineExecutor.submit(task);
+        } catch (RejectedExecutionException e) {
+            LOGGER.warn("Quiz pipeline stage '{}' rejected, saving quiz without it", stage);
             return null;
         }
     }
 
     /**
-     * Parses the quiz and creates a {@link List<QuizlyQuestionGroup>}. This method extracts the
-     * question portion of the generated quiz and creates a {@link QuizlyQuestionGroup} for each
-     * question. Each {@link QuizlyQuestionGroup} contains: the question, the options, and the
-     * answer for the question.
+     * Waits for a pipeline stage until its deadline. A stage that times out is cancelled, interrupting
+     * its worker, and a stage that fails or is cancelled yields the given fallback so the quiz can still
+     * be saved.
      *
-     * @param questionGroup {@link String} generated quiz questions, options, and answer
-     * @param answerKey     {@link String} generated quiz answer key
+     * @param stage    {@link String} stage name used for logging
+     * @param future   {@link Future} running stage
+     * @param deadline long deadline in {@link System#nanoTime()} units
+     * @param fallback value returned when the stage does not complete successfully
      *
-     * @return {@link List<QuizlyQuestionGroup>} containing the question, options, and answer for each question
+     * @return stage result or fallback
      */
-    private List<QuizlyQuestionGroup> parseQuiz(String questionGroup, String answerKey) {
-        List<QuizlyQuestionGroup> questions = new ArrayList<>();
-
-        // Regular expression to match each question and its options with an additional space between questions
-        Pattern questionPattern = Pattern.compile("(\\d+\\.\\s+[^\\n]+)\\n\\s*(A\\.\\s+[^\\n]+)\\n\\s*(B\\.\\s+[^\\n]+)\\n\\s*(C\\.\\s+[^\\n]+)\\n\\s*(D\\.\\s+[^\\n]+)\\n?", Pattern.MULTILINE);
-        Matcher questionMatcher = questionPattern.matcher(questionGroup);
-
-        // Regular expression to match each answer in the answer key
-        Pattern answerKeyPattern = Pattern.compile("(\\d+)\\.\\s*([^\\n]+)");
-        List<String> answers = getAnswers(answerKey, answerKeyPattern);
-
-        int index = 0;
-        while (questionMatcher.find()) {
-            String questionText = questionMatcher.group(1).trim();
-            String optionA = questionMatcher.group(2).trim();
-            String optionB = questionMatcher.group(3).trim();
-            String optionC = questionMatcher.group(4).trim();
-            String optionD = questionMatcher.group(5).trim();
-
-            List<String> options = Arrays.asList(optionA, optionB, optionC, optionD);
-
-            // Retrieve the answer from the parsed answer key
-            String answer = answers.size() > index ? answers.get(index) : NO_ANSWER_PROVIDED;
-
-            QuizlyQuestionGroup group = QuizlyQuestionGroup.builder()
-                    .question(questionText)
-                    .options(options)
-                    .answer(answer)
-                    .build();
-
-            questions.add(group);
-            index++;
+    private <T> T awaitStage(String stage, Future<T> future, long deadline, T fallback) {
+        try {
+            T result = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return null != result ? result : fallback;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            LOGGER.warn("Quiz pipeline stage '{}' timed out, saving quiz without it", stage);
+        } catch (ExecutionException e) {
+            LOGGER.error("Quiz pipeline stage '{}' failed: {}", stage, e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            LOGGER.warn("Interrupted while waiting on quiz pipeline stage '{}'", stage);
         }
-        return questions;
+        return fallback;
     }
 
     /**
-     * Each answer from the answer key is added to the QuizlyQuestionGroup
-     * If no answer is provided there's been a grave mistake (the LLM didn't give
-     * an answer to each question, which is unlikely, or the format of the output
-     * from the LLM is corrupt which is most likely).
+     * Renders the thumbnail of a saved quiz PDF, stores it in GridFS and references it from the quiz.
      *
-     * @param answerKey        {@link String} answer key section from parsed quiz
-     * @param answerKeyPattern {@link Pattern} Regex Pattern to parse answers
-     *
-     * @return {@link List<String>} answers from answer key
+     * @param quizId     {@link ObjectId} quiz id
+     * @param pdfContent byte[] pdfContent
      */
-    @NotNull
-    private List<String> getAnswers(String answerKey, Pattern answerKeyPattern) {
-        Matcher answerKeyMatcher = answerKeyPattern.matcher(answerKey);
-        List<String> answers = new ArrayList<>();
-        while (answerKeyMatcher.find()) {
-            answers.add(answerKeyMatcher.group(2).trim());
+    private void saveThumbnail(ObjectId quizId, byte[] pdfContent) {
+        QuizThumbnail thumbnail = thumbnailService.createThumbnail(pdfContent);
+        if (null == thumbnail) {
+            LOGGER.warn("No thumbnail generated for quiz '{}'", quizId);
+            return;
+        }
+        try {
+            ObjectId thumbnailFileId = quizFileStorageService.storeQuizThumbnail(
+                    quizId,
+                    thumbnail.getData(),
+                    thumbnail.getContentType()
+            );
+            Query query = new Query(Criteria.where(_ID).is(quizId));
+            Update update = new Update().set(THUMBNAIL_FILE_ID, thumbnailFileId);
+            mongoTemplate.updateFirst(query, update, Quiz.class);
+        } catch (Exception e) {
+            LOGGER.error("Error saving thumbnail for quiz '{}': {}", quizId, e.getMessage());
         }
-        return answers;
     }
 
     /**
@@ -216,9 +349,11 @@ public class QuizlyDocumentServiceImpl implements QuizlyDocumentService {
             quizSplitRegex = QUIZ_SPLIT_REGEX_BG;
         }
 
+        TrueTypeFont dejavuSans = null;
         try (PDDocument document = new PDDocument()) {
-            ClassPathResource dejavu = new ClassPathResource(DEJAVU_SANS_FONT);
-            PDType0Font font = PDType0Font.load(document, dejavu.getInputStream());
+            // The parsed font is shared through the pool, each document still embeds only its own subset
+            dejavuSans = pdfFontPool.borrow();
+            PDType0Font font = PDType0Font.load(document, dejavuSans, true);
 
             PDPage currentPage = createNewPage(document);
             try (PDPageContentStream contentStream = new PDPageContentStream(document, currentPage)) {
@@ -279,6 +414,8 @@ public class QuizlyDocumentServiceImpl implements QuizlyDocumentService {
         } catch (IOException e) {
             LOGGER.error("Error generating PDF", e);
             return null;
+        } finally {
+            pdfFontPool.release(dejavuSans);
         }
     }
 
@@ -1,7 +1,12 @@
 package com.morris.quizly.services.impl;
 
+import com.morris.quizly.models.security.ConfigurationComponent;
 import com.morris.quizly.models.security.UserDetails;
+import com.morris.quizly.models.security.VerificationToken;
+import com.morris.quizly.models.security.VerificationTokenType;
 import com.morris.quizly.repositories.UserRepository;
+import com.morris.quizly.repositories.VerificationTokenRepository;
+import com.morris.quizly.services.PrincipalCacheService;
 import com.morris.quizly.services.QuizlyUserDetailsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,8 +18,9 @@ import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Calendar;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class QuizlyUserDetailsServiceImpl implements QuizlyUserDetailsService {
@@ -22,22 +28,28 @@ public class QuizlyUserDetailsServiceImpl implements QuizlyUserDetailsService {
 
     private final UserRepository userRepository;
     private final MongoTemplate mongoTemplate;
+    private final PrincipalCacheService principalCacheService;
+    private final VerificationTokenRepository verificationTokenRepository;
+    private final ConfigurationComponent configurationComponent;
 
     private static final String _ID = "_id";
     private static final String ENABLED = "enabled";
     private static final String USERNAME = "username";
     private static final String PASSWORD = "password";
-    private static final String EMAIL_ADDRESS = "emailAddress";
-    private static final String PASSWORD_RESET_TOKEN = "passwordResetToken";
-    private static final String PASSWORD_RESET_TOKEN_EXPIRY = "passwordResetTokenExpiry";
     private static final String USER_NOT_FOUND_ERROR = "User not found: ";
     private static final String SIGNUP_TOKEN_NOT_FOUND = "signup confirmation token not found: ";
     private static final String PASSWORD_RESET_TOKEN_NOT_FOUND = "password reset token not found: ";
 
     @Autowired
-    public QuizlyUserDetailsServiceImpl(UserRepository userRepository, MongoTemplate mongoTemplate) {
+    public QuizlyUserDetailsServiceImpl(UserRepository userRepository, MongoTemplate mongoTemplate,
+                                        PrincipalCacheService principalCacheService,
+                                        VerificationTokenRepository verificationTokenRepository,
+                                        ConfigurationComponent configurationComponent) {
         this.userRepository = userRepository;
         this.mongoTemplate = mongoTemplate;
+        this.principalCacheService = principalCacheService;
+        this.verificationTokenRepository = verificationTokenRepository;
+        this.configurationComponent = configurationComponent;
     }
 
     @Override
@@ -46,15 +58,23 @@ public class QuizlyUserDetailsServiceImpl implements QuizlyUserDetailsService {
                 .orElseThrow(() -> new UsernameNotFoundException(USER_NOT_FOUND_ERROR + username));
     }
 
+    @Override
+    public void createSignupToken(UserDetails user, String token) {
+        // a resent confirmation replaces the previous link
+        verificationTokenRepository.deleteByUserIdAndType(user.getId(), VerificationTokenType.SIGNUP);
+        saveVerificationToken(user, token, VerificationTokenType.SIGNUP,
+                TimeUnit.HOURS.toMillis(configurationComponent.getSignupTokenTtlHours()));
+    }
+
     @Override
     public UserDetails findBySignupToken(String token) {
-        return userRepository.findBySignupToken(token)
+        return findByVerificationToken(token, VerificationTokenType.SIGNUP)
                 .orElseThrow(() -> new UsernameNotFoundException(SIGNUP_TOKEN_NOT_FOUND + token));
     }
 
     @Override
     public UserDetails findByPasswordResetToken(String token) {
-        return userRepository.findByPasswordResetToken(token)
+        return findByVerificationToken(token, VerificationTokenType.PASSWORD_RESET)
                 .orElseThrow(() -> new UsernameNotFoundException(PASSWORD_RESET_TOKEN_NOT_FOUND + token));
     }
 
@@ -65,7 +85,7 @@ public class QuizlyUserDetailsServiceImpl implements QuizlyUserDetailsService {
 
     @Override
     public boolean isUserNameInUse(String userName) {
-        return userRepository.findByUsername(userName).isPresent();
+        return userRepository.countByUsername(userName) > 0;
     }
 
     @Override
@@ -73,6 +93,21 @@ public class QuizlyUserDetailsServiceImpl implements QuizlyUserDetailsService {
         Query query = new Query(Criteria.where(USERNAME).is(user.getUsername()));
         Update update = new Update().set(PASSWORD, password);
         mongoTemplate.updateFirst(query, update, UserDetails.class);
+        principalCacheService.invalidate(user.getUsername());
+    }
+
+    @Override
+    public org.springframework.security.core.userdetails.UserDetails updatePassword(
+            org.springframework.security.core.userdetails.UserDetails user, String newPassword) {
+        Query query = new Query(Criteria.where(USERNAME).is(user.getUsername()));
+        Update update = new Update().set(PASSWORD, newPassword);
+        mongoTemplate.updateFirst(query, update, UserDetails.class);
+        principalCacheService.invalidate(user.getUsername());
+        if (user instanceof UserDetails quizlyUser) {
+            quizlyUser.setPassword(newPassword);
+        }
+        LOGGER.info("Upgraded password encoding of user '{}'", user.getUsername());
+        return user;
     }
 
     @Override
@@ -80,27 +115,39 @@ public class QuizlyUserDetailsServiceImpl implements QuizlyUserDetailsService {
         Query query = new Query(Criteria.where(_ID).is(user.getId()));
         Update update = new Update().set(ENABLED, enabled);
         mongoTemplate.updateFirst(query, update, UserDetails.class);
+        principalCacheService.invalidate(user.getUsername());
+        if (enabled) {
+            // remove the signup token to prevent reuse of the confirmation link
+            verificationTokenRepository.deleteByUserIdAndType(user.getId(), VerificationTokenType.SIGNUP);
+        }
     }
 
     @Override
     public void updateAndRemovePasswordResetToken(String token) {
-        Query query = new Query(Criteria.where(PASSWORD_RESET_TOKEN).is(token));
-        Update update = new Update().unset(PASSWORD_RESET_TOKEN);
-        update.unset(PASSWORD_RESET_TOKEN_EXPIRY);
-        mongoTemplate.updateFirst(query, update, UserDetails.class);
+        verificationTokenRepository.deleteByTokenAndType(token, VerificationTokenType.PASSWORD_RESET);
     }
 
     // TODO: add a counter here, users make mistakes such as email deletes but we need to protect from spam
     @Override
     public void updateAndSetPasswordResetToken(UserDetails user, String token) {
-        Query query = new Query(Criteria.where(EMAIL_ADDRESS).is(user.getEmailAddress()));
-        Update update = new Update().set(PASSWORD_RESET_TOKEN, token);
+        verificationTokenRepository.deleteByUserIdAndType(user.getId(), VerificationTokenType.PASSWORD_RESET);
+        saveVerificationToken(user, token, VerificationTokenType.PASSWORD_RESET,
+                TimeUnit.MINUTES.toMillis(configurationComponent.getPasswordResetTokenTtlMinutes()));
+    }
 
-        Calendar calendar = Calendar.getInstance();
-        calendar.add(Calendar.HOUR, 1);
-        Date expire = calendar.getTime();
-        update.set(PASSWORD_RESET_TOKEN_EXPIRY, expire);
+    private void saveVerificationToken(UserDetails user, String token, VerificationTokenType type, long ttlMillis) {
+        Date now = new Date();
+        verificationTokenRepository.save(VerificationToken.builder()
+                .token(token)
+                .type(type)
+                .userId(user.getId())
+                .createdDate(now)
+                .expiresAt(new Date(now.getTime() + ttlMillis))
+                .build());
+    }
 
-        mongoTemplate.updateFirst(query, update, UserDetails.class);
+    private Optional<UserDetails> findByVerificationToken(String token, VerificationTokenType type) {
+        return verificationTokenRepository.findByTokenAndTypeAndExpiresAtAfter(token, type, new Date())
+                .flatMap(verificationToken -> userRepository.findById(verificationToken.getUserId().toHexString()));
     }
 }
@@ -0,0 +1,135 @@
+package com.morris.quizly.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.morris.quizly.models.security.ConfigurationComponent;
+import com.morris.quizly.models.security.RateLimitRoute;
+import com.morris.quizly.services.RateLimitService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token buckets implemented with the generic cell rate algorithm. A bucket is a single
+ * {@link AtomicLong} holding the theoretical arrival time of the next request, updated with a
+ * compare-and-set, so taking a token never locks. Every route group has a bucket per client IP and a
+ * bucket per user id. Buckets live in a bounded cache and are evicted once idle for a full refill
+ * period, when they would be full again anyway.
+ */
+@Service
+public class RateLimitServiceImpl implements RateLimitService {
+
+    private static final String RATE_LIMIT_BUCKETS = "rateLimitBuckets";
+    private static final String RATE_LIMIT_REQUESTS = "quizly.rate-limit.requests";
+    private static final String ROUTE = "route";
+    private static final String SCOPE = "scope";
+    private static final String OUTCOME = "outcome";
+    private static final String USER_SCOPE = "user";
+    private static final String IP_SCOPE = "ip";
+
+    private final Map<RateLimitRoute, Limit> userLimits = new EnumMap<>(RateLimitRoute.class);
+    private final Map<RateLimitRoute, Limit> ipLimits = new EnumMap<>(RateLimitRoute.class);
+    private final Cache<String, AtomicLong> buckets;
+    private final Ticker ticker;
+
+    @Autowired
+    public RateLimitServiceImpl(ConfigurationComponent configurationComponent, MeterRegistry meterRegistry) {
+        this(configurationComponent, meterRegistry, Ticker.systemTicker());
+    }
+
+    /**
+     * @param ticker {@link Ticker} nanosecond clock of the buckets and their expiry
+     */
+    RateLimitServiceImpl(ConfigurationComponent configurationComponent, MeterRegistry meterRegistry, Ticker ticker) {
+        this.ticker = ticker;
+        long quizGenerationPeriod = configurationComponent.getRateLimitQuizGenerationRefillPeriodSeconds();
+        userLimits.put(RateLimitRoute.QUIZ_GENERATION, new Limit(
+                configurationComponent.getRateLimitQuizGenerationCapacity(),
+                quizGenerationPeriod, RateLimitRoute.QUIZ_GENERATION, USER_SCOPE, meterRegistry
+        ));
+        ipLimits.put(RateLimitRoute.QUIZ_GENERATION, new Limit(
+                configurationComponent.getRateLimitQuizGenerationIpCapacity(),
+                quizGenerationPeriod, RateLimitRoute.QUIZ_GENERATION, IP_SCOPE, meterRegistry
+        ));
+        long authPeriod = configurationComponent.getRateLimitAuthRefillPeriodSeconds();
+        userLimits.put(RateLimitRoute.AUTH, new Limit(
+                configurationComponent.getRateLimitAuthCapacity(),
+                authPeriod, RateLimitRoute.AUTH, USER_SCOPE, meterRegistry
+        ));
+        ipLimits.put(RateLimitRoute.AUTH, new Limit(
+                configurationComponent.getRateLimitAuthIpCapacity(),
+                authPeriod, RateLimitRoute.AUTH, IP_SCOPE, meterRegistry
+        ));
+        long longestPeriodNanos = userLimits.values().stream().mapToLong(limit -> limit.periodNanos).max().orElse(0);
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(configurationComponent.getRateLimitMaxKeys())
+                .expireAfterAccess(Duration.ofNanos(longestPeriodNanos))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, RATE_LIMIT_BUCKETS);
+    }
+
+    @Override
+    public long tryAcquire(RateLimitRoute route, String clientIp, String userId) {
+        // the IP bucket is checked first, a request it rejects does not spend a token of the user
+        long wait = tryAcquire(ipLimits.get(route), route.name() + ':' + IP_SCOPE + ':' + clientIp);
+        if (wait > 0 || null == userId) {
+            return wait;
+        }
+        return tryAcquire(userLimits.get(route), route.name() + ':' + USER_SCOPE + ':' + userId);
+    }
+
+    private long tryAcquire(Limit limit, String key) {
+        long now = ticker.read();
+        AtomicLong theoreticalArrival = buckets.get(key, bucket -> new AtomicLong(now));
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = (current - now > 0 ? current : now) + limit.emissionIntervalNanos;
+            long wait = next - now - limit.periodNanos;
+            if (wait > 0) {
+                limit.rejected.increment();
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                limit.allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * A bucket of capacity tokens refilled over periodSeconds. A token is added every emission
+     * interval and a full bucket allows a burst of capacity requests.
+     */
+    private static final class Limit {
+        private final long periodNanos;
+        private final long emissionIntervalNanos;
+        private final Counter allowed;
+        private final Counter rejected;
+
+        private Limit(int capacity, long periodSeconds, RateLimitRoute route, String scope, MeterRegistry meterRegistry) {
+            this.periodNanos = TimeUnit.SECONDS.toNanos(periodSeconds);
+            this.emissionIntervalNanos = periodNanos / Math.max(1, capacity);
+            this.allowed = Counter.builder(RATE_LIMIT_REQUESTS)
+                    .tag(ROUTE, route.name())
+                    .tag(SCOPE, scope)
+                    .tag(OUTCOME, "allowed")
+                    .register(meterRegistry);
+            this.rejected = Counter.builder(RATE_LIMIT_REQUESTS)
+                    .tag(ROUTE, route.name())
+                    .tag(SCOPE, scope)
+                    .tag(OUTCOME, "rejected")
+                    .register(meterRegistry);
+        }
+    }
+}
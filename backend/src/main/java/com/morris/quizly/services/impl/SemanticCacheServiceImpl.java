@@ -0,0 +1,177 @@
+package com.morris.quizly.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.morris.quizly.models.locales.Language;
+import com.morris.quizly.models.quiz.QuizRequest;
+import com.morris.quizly.models.security.ConfigurationComponent;
+import com.morris.quizly.services.SemanticCacheService;
+import com.morris.quizly.utils.PromptUtil;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Responses are partitioned by language, each partition a bounded cache that evicts the least
+ * recently and frequently used entries and expires entries after a fixed time. Within a partition an
+ * entry is keyed by question count and normalized prompt, so repeats of the same prompt are answered
+ * without an embedding call. Otherwise the prompt is embedded and compared by cosine similarity with
+ * every entry of the same question count, the closest entry above the threshold is served.
+ */
+@Service
+public class SemanticCacheServiceImpl implements SemanticCacheService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SemanticCacheServiceImpl.class);
+
+    private static final String SEMANTIC_CACHE = "semanticCache.";
+    private static final String SEMANTIC_CACHE_REQUESTS = "quizly.semantic-cache.requests";
+    private static final String LANGUAGE = "language";
+    private static final String RESULT = "result";
+    private static final String EXACT_HIT = "exact-hit";
+    private static final String SIMILAR_HIT = "similar-hit";
+    private static final String MISS = "miss";
+    private static final String BYPASS = "bypass";
+
+    private final EmbeddingModel embeddingModel;
+    private final boolean enabled;
+    private final double similarityThreshold;
+    private final Map<Language, Partition> partitions = new EnumMap<>(Language.class);
+
+    @Autowired
+    public SemanticCacheServiceImpl(EmbeddingModel embeddingModel, ConfigurationComponent configurationComponent,
+                                    MeterRegistry meterRegistry) {
+        this.embeddingModel = embeddingModel;
+        this.enabled = configurationComponent.isSemanticCacheEnabled();
+        this.similarityThreshold = configurationComponent.getSemanticCacheSimilarityThreshold();
+        for (Language language : Language.values()) {
+            Cache<String, Entry> entries = Caffeine.newBuilder()
+                    .maximumSize(configurationComponent.getSemanticCacheMaxSize())
+                    .expireAfterWrite(Duration.ofMinutes(configurationComponent.getSemanticCacheTtlMinutes()))
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, entries, SEMANTIC_CACHE + language.name());
+            partitions.put(language, new Partition(entries, language, meterRegistry));
+        }
+    }
+
+    @Override
+    public String getOrGenerate(QuizRequest quizRequest, Supplier<String> generator, Predicate<String> cacheable) {
+        Partition partition = partitions.get(quizRequest.getLanguage());
+        if (!enabled || quizRequest.isBypassCache()) {
+            partition.bypass.increment();
+            return generator.get();
+        }
+        int numberOfQuestions = quizRequest.getNumberOfQuestions();
+        String normalizedPrompt = PromptUtil.normalize(quizRequest.getPrompt());
+        String key = numberOfQuestions + ":" + normalizedPrompt;
+
+        Entry exact = partition.entries.getIfPresent(key);
+        if (null != exact) {
+            partition.exactHits.increment();
+            return exact.response;
+        }
+        float[] embedding = embed(normalizedPrompt);
+        if (null != embedding) {
+            Entry similar = findMostSimilar(partition, numberOfQuestions, embedding);
+            if (null != similar) {
+                partition.similarHits.increment();
+                return similar.response;
+            }
+        }
+        partition.misses.increment();
+        String response = generator.get();
+        if (null != embedding && null != response && cacheable.test(response)) {
+            partition.entries.put(key, new Entry(numberOfQuestions, embedding, response));
+        }
+        return response;
+    }
+
+    private Entry findMostSimilar(Partition partition, int numberOfQuestions, float[] embedding) {
+        Entry closest = null;
+        double closestSimilarity = similarityThreshold;
+        for (Entry entry : partition.entries.asMap().values()) {
+            if (entry.numberOfQuestions != numberOfQuestions) {
+                continue;
+            }
+            double similarity = dot(entry.embedding, embedding);
+            if (similarity >= closestSimilarity) {
+                closest = entry;
+                closestSimilarity = similarity;
+            }
+        }
+        return closest;
+    }
+
+    /**
+     * Embed a normalized prompt as a unit vector, so cosine similarity is a dot product.
+     *
+     * @return float[] unit vector, or null if the prompt cannot be embedded
+     */
+    private float[] embed(String normalizedPrompt) {
+        try {
+            float[] vector = embeddingModel.embed(normalizedPrompt).content().vector();
+            double norm = Math.sqrt(dot(vector, vector));
+            if (norm == 0) {
+                return null;
+            }
+            float[] unitVector = new float[vector.length];
+            for (int i = 0; i < vector.length; i++) {
+                unitVector[i] = (float) (vector[i] / norm);
+            }
+            return unitVector;
+        } catch (Exception e) {
+            LOGGER.warn("Unable to embed prompt for the semantic cache: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static double dot(float[] a, float[] b) {
+        if (a.length != b.length) {
+            return 0;
+        }
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    private record Entry(int numberOfQuestions, float[] embedding, String response) {
+    }
+
+    /**
+     * The cached responses of one language and their hit and miss counters.
+     */
+    private static final class Partition {
+        private final Cache<String, Entry> entries;
+        private final Counter exactHits;
+        private final Counter similarHits;
+        private final Counter misses;
+        private final Counter bypass;
+
+        private Partition(Cache<String, Entry> entries, Language language, MeterRegistry meterRegistry) {
+            this.entries = entries;
+            this.exactHits = counter(meterRegistry, language, EXACT_HIT);
+            this.similarHits = counter(meterRegistry, language, SIMILAR_HIT);
+            this.misses = counter(meterRegistry, language, MISS);
+            this.bypass = counter(meterRegistry, language, BYPASS);
+        }
+
+        private static Counter counter(MeterRegistry meterRegistry, Language language, String result) {
+            return Counter.builder(SEMANTIC_CACHE_REQUESTS)
+                    .tag(LANGUAGE, language.name())
+                    .tag(RESULT, result)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package com.morris.quizly.services.impl;
 
+import com.morris.quizly.models.security.UserAccountStatus;
 import com.morris.quizly.models.security.UserDetails;
 import com.morris.quizly.models.system.Flag;
 import com.morris.quizly.models.system.SystemFlag;
+import com.morris.quizly.models.system.UserSystemFlags;
 import com.morris.quizly.repositories.UserRepository;
 import com.morris.quizly.services.NotificationService;
+import com.morris.quizly.services.PrincipalCacheService;
 import com.morris.quizly.services.SystemFlaggingService;
+import com.morris.quizly.services.TokenRevocationService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
@@ -26,6 +31,8 @@ public class SystemFlaggingServiceImpl implements SystemFlaggingService {
     private final UserRepository userRepository;
     private final MongoTemplate mongoTemplate;
     private final NotificationService notificationService;
+    private final PrincipalCacheService principalCacheService;
+    private final TokenRevocationService tokenRevocationService;
 
     private static final String ADMIN_LOCK_MESSAGE = "Administration lock on account. Email us at ai.quizly@gmail.com for inquiries.";
     private static final String REASON_NOTIFY_MESSAGE = "User has been notified on (3) occasions for improper system ai usage: \n";
@@ -34,42 +41,61 @@ public class SystemFlaggingServiceImpl implements SystemFlaggingService {
     private static final String FLAG_COUNT = "flagCount";
     private static final String FLAGS = "flags";
     private static final String ACCOUNT_NON_LOCKED = "accountNonLocked";
-    private static final String LOCK_REASON = "lockReason";
+    private static final String LOCKED_REASON = "lockedReason";
+    private static final String USERNAME = "username";
 
     @Autowired
     public SystemFlaggingServiceImpl(UserRepository userRepository, MongoTemplate mongoTemplate,
-                                     NotificationService notificationService) {
+                                     NotificationService notificationService, PrincipalCacheService principalCacheService,
+                                     TokenRevocationService tokenRevocationService) {
         this.userRepository = userRepository;
         this.mongoTemplate = mongoTemplate;
         this.notificationService = notificationService;
+        this.principalCacheService = principalCacheService;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @Override
     @Transactional(propagation = Propagation.REQUIRED)
     public Flag insertFlag(String userId, SystemFlag systemFlag) {
+        // the flag is added and the new count and flags are read back in one atomic round-trip, so
+        // concurrent flags for the same user each see their own count
         Query query = new Query(Criteria.where(ID).is(userId));
+        query.fields().include(FLAG_COUNT, FLAGS);
         Update update = new Update()
                 .inc(FLAG_COUNT, 1)
                 .push(FLAGS, systemFlag);
-        mongoTemplate.updateFirst(query, update, UserDetails.class);
-
-        UserDetails userDetails = mongoTemplate.findOne(query, UserDetails.class);
-        if (null != userDetails && userDetails.getFlagCount() >= 3) {
+        UserDetails userDetails = mongoTemplate.findAndModify(
+                query,
+                update,
+                FindAndModifyOptions.options().returnNew(true),
+                UserDetails.class
+        );
+        if (null == userDetails) {
+            return null;
+        }
+        if (userDetails.getFlagCount() >= 3) {
             String lockReason = createLockReason(userDetails.getFlags());
             return lockAccount(userId, lockReason);
         }
-        return null != userDetails ? getFlagResult(userDetails.getFlagCount()) : null;
+        return getFlagResult(userDetails.getFlagCount());
     }
 
     @Override
     @Transactional(propagation = Propagation.REQUIRED)
     public Flag lockAccount(String userId, String lockReason) {
-        Query query = new Query(Criteria.where(ID).is(userId));
+        // only the update that actually locks the account revokes tokens and notifies the admin
+        Query query = new Query(Criteria.where(ID).is(userId).and(ACCOUNT_NON_LOCKED).ne(false));
+        query.fields().include(USERNAME);
         Update update = new Update()
                 .set(ACCOUNT_NON_LOCKED, false)
-                .set(LOCK_REASON, lockReason);
-
-        mongoTemplate.updateFirst(query, update, UserDetails.class);
+                .set(LOCKED_REASON, lockReason);
+        UserDetails lockedUser = mongoTemplate.findAndModify(query, update, UserDetails.class);
+        if (null == lockedUser) {
+            return Flag.FLAG_LOCK;
+        }
+        principalCacheService.invalidate(lockedUser.getUsername());
+        tokenRevocationService.revokeUser(lockedUser.getUsername());
         boolean isAdminNotified = notifyAdminOfAccountLock(userId, lockReason);
         if (isAdminNotified) {
             LOGGER.info("Admin notified of account lock for user '{}' with reason: {}", userId, lockReason);
@@ -103,12 +129,16 @@ public class SystemFlaggingServiceImpl implements SystemFlaggingService {
 
     @Override
     public boolean isAccountNonLocked(String userId) {
-        return userRepository.isAccountNonLocked(userId);
+        return userRepository.findAccountStatusById(userId)
+                .map(UserAccountStatus::isAccountNonLocked)
+                .orElse(false);
     }
 
     @Override
     public List<SystemFlag> getSystemFlagsByUser(String userId) {
-        return userRepository.getSystemFlagsByUserId(userId);
+        return userRepository.findSystemFlagsById(userId)
+                .map(UserSystemFlags::getFlags)
+                .orElse(List.of());
     }
 
     private Flag getFlagResult(int flagCount) {
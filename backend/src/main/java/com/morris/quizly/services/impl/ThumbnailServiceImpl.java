@@ -0,0 +1,59 @@
+package com.morris.quizly.services.impl;
+
+import com.morris.quizly.models.pdf.QuizThumbnail;
+import com.morris.quizly.models.pdf.ThumbnailFormat;
+import com.morris.quizly.models.security.ConfigurationComponent;
+import com.morris.quizly.services.ThumbnailService;
+import com.morris.quizly.utils.ImageUtil;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+@Service
+public class ThumbnailServiceImpl implements ThumbnailService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ThumbnailServiceImpl.class);
+
+    private static final float POINTS_PER_INCH = 72f;
+
+    private final ConfigurationComponent configurationComponent;
+
+    @Autowired
+    public ThumbnailServiceImpl(ConfigurationComponent configurationComponent) {
+        this.configurationComponent = configurationComponent;
+    }
+
+    @Override
+    public QuizThumbnail createThumbnail(byte[] pdfContent) {
+        ThumbnailFormat format = configurationComponent.getQuizThumbnailFormat();
+        try (PDDocument document = PDDocument.load(pdfContent)) {
+            // Render straight at the target size instead of rendering large and scaling down. The scale is
+            // the smaller of the configured resolution and the one that fits the page into the maximum width.
+            float pageWidth = document.getPage(0).getMediaBox().getWidth();
+            float scale = Math.min(
+                    configurationComponent.getQuizThumbnailDpi() / POINTS_PER_INCH,
+                    configurationComponent.getQuizThumbnailMaxWidth() / pageWidth
+            );
+            BufferedImage bufferedImage = new PDFRenderer(document).renderImage(0, scale, ImageType.RGB);
+            return QuizThumbnail.builder()
+                    .data(encode(bufferedImage, format))
+                    .contentType(format.getContentType())
+                    .build();
+        } catch (IOException e) {
+            LOGGER.error("Error generating thumbnail of pdf: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private byte[] encode(BufferedImage image, ThumbnailFormat format) throws IOException {
+        return ImageUtil.encode(image, format.getFormatName(), format == ThumbnailFormat.JPEG
+                ? configurationComponent.getQuizThumbnailJpegQuality()
+                : configurationComponent.getQuizThumbnailPngCompressionQuality());
+    }
+}
@@ -0,0 +1,82 @@
+package com.morris.quizly.services.impl;
+
+import com.morris.quizly.models.security.JwtTokenProvider;
+import com.morris.quizly.models.security.RevokedPrincipal;
+import com.morris.quizly.models.security.VerifiedToken;
+import com.morris.quizly.services.TokenRevocationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Revocations are persisted in Mongo, with a TTL index removing them once the revoked tokens have
+ * expired, and every instance checks tokens against an in-memory snapshot. Revocations made by this
+ * instance apply immediately, revocations made elsewhere once the snapshot is refreshed.
+ */
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenRevocationServiceImpl.class);
+
+    private static final String _ID = "_id";
+    private static final String REVOKED_AT = "revokedAt";
+    private static final String EXPIRES_AT = "expiresAt";
+
+    private final MongoTemplate mongoTemplate;
+    private final JwtTokenProvider jwtTokenProvider;
+
+    private final Map<String, Date> revocations = new ConcurrentHashMap<>();
+
+    @Autowired
+    public TokenRevocationServiceImpl(MongoTemplate mongoTemplate, JwtTokenProvider jwtTokenProvider) {
+        this.mongoTemplate = mongoTemplate;
+        this.jwtTokenProvider = jwtTokenProvider;
+    }
+
+    @Override
+    public void revokeUser(String username) {
+        Date now = new Date();
+        Date expiresAt = new Date(now.getTime() + jwtTokenProvider.getMaxTokenValidityInMilliseconds());
+        mongoTemplate.upsert(
+                new Query(Criteria.where(_ID).is(username)),
+                new Update().set(REVOKED_AT, now).set(EXPIRES_AT, expiresAt),
+                RevokedPrincipal.class
+        );
+        revocations.put(username, now);
+    }
+
+    @Override
+    public boolean isRevoked(VerifiedToken verifiedToken) {
+        Date revokedAt = revocations.get(verifiedToken.getUsername());
+        // issuedAt has second precision, a token issued in the second of the revocation is rejected
+        return null != revokedAt
+                && (null == verifiedToken.getIssuedAt() || !verifiedToken.getIssuedAt().after(revokedAt));
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.revocation.refresh-ms}")
+    public void refreshRevocations() {
+        try {
+            long refreshStartedAt = System.currentTimeMillis();
+            Map<String, Date> stored = new HashMap<>();
+            mongoTemplate.find(new Query(Criteria.where(EXPIRES_AT).gt(new Date())), RevokedPrincipal.class)
+                    .forEach(revoked -> stored.put(revoked.getUsername(), revoked.getRevokedAt()));
+            stored.forEach((username, revokedAt) ->
+                    revocations.merge(username, revokedAt, (current, read) -> current.after(read) ? current : read));
+            // expired revocations are gone from the store, local ones made during the read are kept
+            revocations.entrySet().removeIf(revocation -> !stored.containsKey(revocation.getKey())
+                    && revocation.getValue().getTime() < refreshStartedAt);
+        } catch (Exception e) {
+            LOGGER.error("Error refreshing token revocations: {}", e.getMessage());
+        }
+    }
+}
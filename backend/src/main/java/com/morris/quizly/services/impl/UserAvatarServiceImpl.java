@@ -0,0 +1,155 @@
+package com.morris.quizly.services.impl;
+
+import com.morris.quizly.models.security.ConfigurationComponent;
+import com.morris.quizly.models.security.UserAvatar;
+import com.morris.quizly.services.UserAvatarService;
+import com.morris.quizly.utils.ImageUtil;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Iterator;
+
+@Service
+public class UserAvatarServiceImpl implements UserAvatarService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserAvatarServiceImpl.class);
+
+    private static final String _ID = "_id";
+    private static final String JPEG = "jpeg";
+    private static final String SHA_256 = "SHA-256";
+
+    private final MongoTemplate mongoTemplate;
+    private final ConfigurationComponent configurationComponent;
+
+    @Autowired
+    public UserAvatarServiceImpl(MongoTemplate mongoTemplate, ConfigurationComponent configurationComponent) {
+        this.mongoTemplate = mongoTemplate;
+        this.configurationComponent = configurationComponent;
+    }
+
+    @Override
+    public ObjectId storeAvatar(ObjectId userId, InputStream imageStream) {
+        try {
+            BufferedImage image = resize(imageStream, configurationComponent.getUserAvatarMaxSize(),
+                    configurationComponent.getUserAvatarMaxSourcePixels());
+            if (null == image) {
+                LOGGER.warn("Avatar of user '{}' is not a readable image or is too large", userId);
+                return null;
+            }
+            byte[] data = ImageUtil.encode(image, JPEG, configurationComponent.getUserAvatarJpegQuality());
+            UserAvatar avatar = mongoTemplate.insert(UserAvatar.builder()
+                    .userId(userId)
+                    .data(data)
+                    .contentType(MediaType.IMAGE_JPEG_VALUE)
+                    .etag(sha256(data))
+                    .width(image.getWidth())
+                    .height(image.getHeight())
+                    .createdDate(new Date())
+                    .build());
+            return avatar.getId();
+        } catch (IOException e) {
+            LOGGER.error("Error storing avatar of user '{}': {}", userId, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public UserAvatar getAvatar(String avatarId) {
+        if (!ObjectId.isValid(avatarId)) {
+            return null;
+        }
+        return mongoTemplate.findById(new ObjectId(avatarId), UserAvatar.class);
+    }
+
+    @Override
+    public void deleteAvatar(ObjectId avatarId) {
+        mongoTemplate.remove(new Query(Criteria.where(_ID).is(avatarId)), UserAvatar.class);
+    }
+
+    /**
+     * Decode an image scaled down to fit a square of the given size. Large uploads are subsampled
+     * while decoding, so the decoded copy is at most twice the given size on its longest side and a
+     * full resolution copy is never held in memory. The remaining scale is done with bicubic
+     * interpolation onto an opaque canvas. Images whose header reports more than maxSourcePixels
+     * are rejected before decoding.
+     *
+     * @param imageStream     {@link InputStream} encoded image
+     * @param maxSize         int: maximum width and height
+     * @param maxSourcePixels long: maximum width times height of the uploaded image
+     *
+     * @return {@link BufferedImage} or null if the stream is not a readable image or is too large
+     * @throws IOException if the stream cannot be read
+     */
+    private BufferedImage resize(InputStream imageStream, int maxSize, long maxSourcePixels) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(imageStream)) {
+            if (null == input) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            BufferedImage source;
+            try {
+                reader.setInput(input, true, true);
+                int sourceWidth = reader.getWidth(0);
+                int sourceHeight = reader.getHeight(0);
+                if ((long) sourceWidth * sourceHeight > maxSourcePixels) {
+                    LOGGER.warn("Avatar of {}x{} pixels exceeds the limit of {} pixels", sourceWidth, sourceHeight, maxSourcePixels);
+                    return null;
+                }
+                ImageReadParam readParam = reader.getDefaultReadParam();
+                // bounded on the longest side, so a very wide or tall upload is subsampled as well
+                int subsampling = Math.max(1, Math.max(sourceWidth, sourceHeight) / (maxSize * 2));
+                readParam.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                source = reader.read(0, readParam);
+            } finally {
+                reader.dispose();
+            }
+            double scale = Math.min(1d, (double) maxSize / Math.max(source.getWidth(), source.getHeight()));
+            int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+            int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+            BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = target.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+                graphics.drawImage(source, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            return target;
+        }
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance(SHA_256).digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.morris.quizly.utils;
+
+import com.morris.quizly.models.quiz.QuizCursor;
+import org.bson.types.ObjectId;
+import org.springframework.lang.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+public class CursorUtil {
+    private static final String SEPARATOR = "|";
+
+    /**
+     * Encodes a {@link QuizCursor} as an url safe token. Clients should treat the token as opaque. Quizzes
+     * saved without a createdDate are encoded with an empty date.
+     *
+     * @param cursor {@link QuizCursor} position of the last returned quiz
+     *
+     * @return {@link String} continuation token
+     */
+    public static String encodeQuizCursor(@NonNull QuizCursor cursor) {
+        String createdDate = null != cursor.getCreatedDate() ? cursor.getCreatedDate().toString() : "";
+        String position = createdDate + SEPARATOR + cursor.getId().toHexString();
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a continuation token created by {@link #encodeQuizCursor(QuizCursor)}.
+     *
+     * @param token {@link String} continuation token
+     *
+     * @return {@link QuizCursor}, with a null createdDate if the quiz had none
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static QuizCursor decodeQuizCursor(@NonNull String token) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = position.lastIndexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new IllegalArgumentException("Malformed quiz cursor");
+            }
+            String createdDate = position.substring(0, separator);
+            return QuizCursor.builder()
+                    .createdDate(createdDate.isEmpty() ? null : LocalDateTime.parse(createdDate))
+                    .id(new ObjectId(position.substring(separator + 1)))
+                    .build();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Malformed quiz cursor", e);
+        }
+    }
+}
@@ -88,6 +88,29 @@ public class FileUtil {
         return "data:" + contentType + ";base64," + encodedStr;
     }
 
+    /**
+     * Decode the payload of a base64 data-URI, such as those created by {@link #base64EncodePDF(byte[], String)}.
+     *
+     * @param dataUri {@link String} data-URI
+     *
+     * @return byte[] decoded payload
+     */
+    public static byte[] base64DecodeDataUri(@NonNull String dataUri) {
+        return Base64.getDecoder().decode(dataUri.substring(dataUri.indexOf(',') + 1));
+    }
+
+    /**
+     * Get the content type of a base64 data-URI.
+     *
+     * @param dataUri {@link String} data-URI
+     *
+     * @return {@link String} content type, or null if the data-URI does not declare one
+     */
+    public static String dataUriContentType(@NonNull String dataUri) {
+        int end = dataUri.indexOf(';');
+        return dataUri.startsWith("data:") && end > 5 ? dataUri.substring(5, end) : null;
+    }
+
     public static BsonBinary base64ToBsonBinary(MultipartFile file) {
         BsonBinary bsonBinary = null;
         try {
@@ -0,0 +1,51 @@
+package com.morris.quizly.utils;
+
+import org.springframework.lang.NonNull;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+
+public class ImageUtil {
+
+    /**
+     * Encode an image with an explicit compression quality. For JPEG the quality trades size against
+     * artifacts, for PNG it trades CPU time against size (lower compresses harder).
+     *
+     * @param image              {@link BufferedImage}
+     * @param formatName         {@link String} image writer format name
+     * @param compressionQuality float: 0 to 1
+     *
+     * @return byte[] encoded image
+     * @throws IOException if the image cannot be written
+     */
+    public static byte[] encode(@NonNull BufferedImage image, @NonNull String formatName, float compressionQuality) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(formatName);
+        if (!writers.hasNext()) {
+            throw new IOException("No image writer for format: " + formatName);
+        }
+        ImageWriter writer = writers.next();
+        ImageWriteParam writeParam = writer.getDefaultWriteParam();
+        if (writeParam.canWriteCompressed()) {
+            writeParam.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            if (null == writeParam.getCompressionType() && null != writeParam.getCompressionTypes()) {
+                writeParam.setCompressionType(writeParam.getCompressionTypes()[0]);
+            }
+            writeParam.setCompressionQuality(compressionQuality);
+        }
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(outputStream)) {
+            writer.setOutput(imageOutputStream);
+            writer.write(null, new IIOImage(image, null, null), writeParam);
+        } finally {
+            writer.dispose();
+        }
+        return outputStream.toByteArray();
+    }
+}
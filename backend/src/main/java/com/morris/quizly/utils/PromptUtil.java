@@ -0,0 +1,27 @@
+package com.morris.quizly.utils;
+
+import org.springframework.lang.NonNull;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public class PromptUtil {
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // sentence punctuation only, symbols such as the + of "C++" or the # of "C#" carry meaning
+    private static final Pattern TRAILING_PUNCTUATION = Pattern.compile("[.!?,;:\\s]+$");
+
+    /**
+     * Normalize a prompt so prompts differing only in case, unicode form, spacing or trailing
+     * sentence punctuation compare equal.
+     *
+     * @param prompt {@link String} user prompt
+     *
+     * @return {@link String} normalized prompt
+     */
+    public static String normalize(@NonNull String prompt) {
+        String normalized = Normalizer.normalize(prompt, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        return TRAILING_PUNCTUATION.matcher(normalized).replaceAll("");
+    }
+}
@@ -0,0 +1,68 @@
+package com.morris.quizly.utils;
+
+import org.springframework.lang.NonNull;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key. The first caller runs the call, callers arriving while
+ * it is in flight wait for and share its result, or its exception. Once the call completes the key is
+ * released, so later callers start a new call; nothing is cached.
+ * <br><br>
+ * Waiting callers are bounded by their own timeout and stop waiting when interrupted, so a hung call
+ * only holds its leader. Giving up does not cancel the call, the leader and other waiters still share it.
+ *
+ * @param <K> key type
+ * @param <V> result type
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Run a call, or join the call in flight for the same key.
+     *
+     * @param key     K call key
+     * @param call    {@link Supplier} the call
+     * @param timeout {@link Duration} how long to wait for a call in flight, the caller's own call is not bounded
+     *
+     * @return V result of the call
+     *
+     * @throws TimeoutException     if the call in flight did not complete within the timeout
+     * @throws InterruptedException if interrupted while waiting for the call in flight
+     */
+    public V execute(@NonNull K key, @NonNull Supplier<V> call, @NonNull Duration timeout)
+            throws TimeoutException, InterruptedException {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (null != existing) {
+            try {
+                return existing.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        try {
+            V result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.morris.quizly.utils;
+
+import org.bson.types.Binary;
+import org.springframework.lang.NonNull;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+
+/**
+ * Packs embedding vectors as BSON binary vectors (subtype 9). A float32 vector is stored as a dtype
+ * byte, a padding byte and the little-endian floats, 4 bytes per dimension instead of the 8 byte
+ * doubles (plus per element type and index overhead) of a BSON array.
+ */
+public class VectorUtil {
+    public static final byte BINARY_VECTOR_SUBTYPE = 9;
+    private static final byte FLOAT32_DTYPE = 0x27;
+    private static final byte NO_PADDING = 0;
+    private static final int HEADER_LENGTH = 2;
+
+    /**
+     * Packs a float vector into a BSON binary vector.
+     *
+     * @param vector float[] vector
+     *
+     * @return {@link Binary} float32 binary vector
+     */
+    public static Binary toBinaryVector(@NonNull float[] vector) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + vector.length * Float.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        buffer.put(FLOAT32_DTYPE).put(NO_PADDING);
+        buffer.asFloatBuffer().put(vector);
+        return new Binary(BINARY_VECTOR_SUBTYPE, buffer.array());
+    }
+
+    /**
+     * Unpacks a BSON float32 binary vector.
+     *
+     * @param binary {@link Binary} float32 binary vector
+     *
+     * @return float[] vector
+     *
+     * @throws IllegalArgumentException if the binary is not a float32 vector
+     */
+    public static float[] fromBinaryVector(@NonNull Binary binary) {
+        byte[] data = binary.getData();
+        if (binary.getType() != BINARY_VECTOR_SUBTYPE || data.length < HEADER_LENGTH || data[0] != FLOAT32_DTYPE
+                || (data.length - HEADER_LENGTH) % Float.BYTES != 0) {
+            throw new IllegalArgumentException("Binary is not a float32 vector");
+        }
+        float[] vector = new float[(data.length - HEADER_LENGTH) / Float.BYTES];
+        ByteBuffer.wrap(data, HEADER_LENGTH, data.length - HEADER_LENGTH)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .asFloatBuffer()
+                .get(vector);
+        return vector;
+    }
+
+    /**
+     * Converts a vector stored as a BSON array of numbers.
+     *
+     * @param values {@link List} vector values
+     *
+     * @return float[] vector
+     */
+    public static float[] fromList(@NonNull List<?> values) {
+        float[] vector = new float[values.size()];
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] = ((Number) values.get(i)).floatValue();
+        }
+        return vector;
+    }
+}
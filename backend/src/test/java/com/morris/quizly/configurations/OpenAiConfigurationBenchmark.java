@@ -0,0 +1,94 @@
+package com.morris.quizly.configurations;
+
+import com.morris.quizly.models.security.ConfigurationComponent;
+import com.morris.quizly.models.system.SystemAi;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.openai.OpenAiChatModel;
+import dev.langchain4j.model.openai.OpenAiEmbeddingModel;
+import dev.langchain4j.model.openai.OpenAiEmbeddingModelName;
+import dev.langchain4j.service.AiServices;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the client setup a quiz request paid before {@link OpenAiConfiguration}, building an
+ * {@link OpenAiChatModel}, an {@link OpenAiEmbeddingModel} and the {@link SystemAi} proxy for every call,
+ * against reusing the singleton beans. No request is sent, so the measured overhead is client and proxy
+ * construction only; the TLS handshake a fresh client also paid on its first call is not included. The GC
+ * profiler reports allocation per request. Run with the main method from the test classpath, it is not
+ * part of the test phase.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class OpenAiConfigurationBenchmark {
+	private static final String API_KEY = "benchmark-api-key";
+	private static final String GPT_4o = "gpt-4o";
+
+	private ChatLanguageModel chatLanguageModel;
+	private EmbeddingModel embeddingModel;
+	private SystemAi systemAi;
+
+	@Setup
+	public void setUp() {
+		ConfigurationComponent configurationComponent = new ConfigurationComponent();
+		ReflectionTestUtils.setField(configurationComponent, "openAiApiKey", API_KEY);
+		ReflectionTestUtils.setField(configurationComponent, "openAiChatTimeoutSeconds", 30L);
+		ReflectionTestUtils.setField(configurationComponent, "openAiChatMaxRetries", 3);
+		ReflectionTestUtils.setField(configurationComponent, "openAiEmbeddingTimeoutSeconds", 30L);
+		ReflectionTestUtils.setField(configurationComponent, "openAiEmbeddingMaxRetries", 2);
+		ReflectionTestUtils.setField(configurationComponent, "embeddingCacheMaxBytes", 1024L * 1024L);
+		ReflectionTestUtils.setField(configurationComponent, "embeddingCacheMongoEnabled", false);
+		ReflectionTestUtils.setField(configurationComponent, "embeddingCacheMongoTtlDays", 30L);
+
+		OpenAiConfiguration openAiConfiguration = new OpenAiConfiguration(configurationComponent);
+		chatLanguageModel = openAiConfiguration.chatLanguageModel();
+		embeddingModel = openAiConfiguration.embeddingModel(null, new SimpleMeterRegistry());
+		systemAi = openAiConfiguration.systemAi(chatLanguageModel, openAiConfiguration.streamingChatLanguageModel());
+	}
+
+	@Benchmark
+	public void clientsPerRequest(Blackhole blackhole) {
+		// OpenAiServiceImpl built these on every generation and embedding call
+		ChatLanguageModel perRequestChatModel = OpenAiChatModel.builder()
+				.apiKey(API_KEY)
+				.modelName(GPT_4o)
+				.timeout(Duration.ofSeconds(30))
+				.build();
+		blackhole.consume(AiServices.builder(SystemAi.class)
+				.chatLanguageModel(perRequestChatModel)
+				.build());
+		blackhole.consume(OpenAiEmbeddingModel.builder()
+				.modelName(OpenAiEmbeddingModelName.TEXT_EMBEDDING_ADA_002)
+				.apiKey(API_KEY)
+				.maxRetries(2)
+				.build());
+	}
+
+	@Benchmark
+	public void singletonClients(Blackhole blackhole) {
+		blackhole.consume(systemAi);
+		blackhole.consume(embeddingModel);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(OpenAiConfigurationBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
@@ -0,0 +1,95 @@
+package com.morris.quizly.models.pdf;
+
+import com.morris.quizly.models.security.ConfigurationComponent;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares writing a quiz PDF with a DejaVu Sans font parsed for every document, as generatePdf did
+ * before {@link PdfFontPool}, against a font borrowed from the pool. Documents are generated on four
+ * threads at once and the GC profiler reports allocation per PDF. Run with the main method from the
+ * test classpath, it is not part of the test phase.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class PdfFontPoolBenchmark {
+	private static final String DEJAVU_SANS_FONT = "/fonts/DejaVuSans.ttf";
+	private static final String TEXT = "1. Въпрос с латиница и кирилица? A. Option Б. Отговор";
+
+	private PdfFontPool pdfFontPool;
+
+	@Setup
+	public void setUp() throws IOException {
+		ConfigurationComponent configurationComponent = new ConfigurationComponent();
+		ReflectionTestUtils.setField(configurationComponent, "quizPdfFontPoolSize", 4);
+		pdfFontPool = new PdfFontPool(configurationComponent);
+		pdfFontPool.init();
+	}
+
+	@TearDown
+	public void tearDown() {
+		pdfFontPool.destroy();
+	}
+
+	@Benchmark
+	public byte[] parseFontPerDocument() throws IOException {
+		try (PDDocument document = new PDDocument();
+			 InputStream font = new ClassPathResource(DEJAVU_SANS_FONT).getInputStream()) {
+			return write(document, PDType0Font.load(document, font));
+		}
+	}
+
+	@Benchmark
+	public byte[] borrowPooledFont() throws IOException {
+		TrueTypeFont dejavuSans = null;
+		try (PDDocument document = new PDDocument()) {
+			dejavuSans = pdfFontPool.borrow();
+			return write(document, PDType0Font.load(document, dejavuSans, true));
+		} finally {
+			pdfFontPool.release(dejavuSans);
+		}
+	}
+
+	private static byte[] write(PDDocument document, PDFont font) throws IOException {
+		PDPage page = new PDPage();
+		document.addPage(page);
+		try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
+			contentStream.setFont(font, 12);
+			contentStream.beginText();
+			contentStream.newLineAtOffset(50, 750);
+			contentStream.showText(TEXT);
+			contentStream.endText();
+		}
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		document.save(outputStream);
+		return outputStream.toByteArray();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(PdfFontPoolBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
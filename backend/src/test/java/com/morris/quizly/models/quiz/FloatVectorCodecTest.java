@@ -0,0 +1,71 @@
+package com.morris.quizly.models.quiz;
+
+import com.morris.quizly.utils.VectorUtil;
+import org.bson.*;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.types.Binary;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FloatVectorCodecTest {
+	private static final String PDF_EMBEDDINGS = "pdfEmbeddings";
+
+	private final FloatVectorCodec codec = new FloatVectorCodec();
+	private final FloatVectorConverter converter = new FloatVectorConverter();
+
+	@Test
+	void codecWritesBinaryVector() {
+		float[] vector = {0.5f, -0.0f, Float.NaN};
+
+		BsonDocument document = encode(vector);
+
+		BsonBinary binary = document.getBinary(PDF_EMBEDDINGS);
+		assertEquals(VectorUtil.BINARY_VECTOR_SUBTYPE, binary.getType());
+		assertArrayEquals(VectorUtil.toBinaryVector(vector).getData(), binary.getData());
+		assertArrayEquals(vector, decode(document));
+	}
+
+	@Test
+	void codecReadsLegacyArrays() {
+		BsonDocument document = new BsonDocument(PDF_EMBEDDINGS, new BsonArray(List.of(
+				new BsonDouble(0.25), new BsonInt32(-1), new BsonInt64(3)
+		)));
+
+		assertArrayEquals(new float[]{0.25f, -1.0f, 3.0f}, decode(document));
+	}
+
+	@Test
+	void converterRoundTrip() {
+		float[] vector = {1.0f, -2.5f, -0.0f};
+
+		Object stored = converter.write(vector, null);
+
+		assertInstanceOf(Binary.class, stored);
+		assertArrayEquals(vector, converter.read(stored, null));
+		assertArrayEquals(new float[]{0.25f, 2.0f}, converter.read(List.of(0.25d, 2.0d), null));
+	}
+
+	private BsonDocument encode(float[] vector) {
+		BsonDocument document = new BsonDocument();
+		BsonDocumentWriter writer = new BsonDocumentWriter(document);
+		writer.writeStartDocument();
+		writer.writeName(PDF_EMBEDDINGS);
+		codec.encode(writer, vector, EncoderContext.builder().build());
+		writer.writeEndDocument();
+		return document;
+	}
+
+	private float[] decode(BsonDocument document) {
+		BsonDocumentReader reader = new BsonDocumentReader(document);
+		reader.readStartDocument();
+		reader.readBsonType();
+		reader.readName();
+		float[] vector = codec.decode(reader, DecoderContext.builder().build());
+		reader.readEndDocument();
+		return vector;
+	}
+}
@@ -0,0 +1,100 @@
+package com.morris.quizly.models.quiz;
+
+import com.morris.quizly.models.locales.Language;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares {@link QuizParser} with the regex parse it replaced on generated quizzes of 10 to 100
+ * questions in both languages. The GC profiler reports allocation per parse. Run with the main method
+ * from the test classpath, it is not part of the test phase.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QuizParserBenchmark {
+
+	@Param({"10", "50", "100"})
+	int questionCount;
+
+	@Param({"EN", "BG"})
+	Language language;
+
+	private String text;
+
+	@Setup
+	public void setUp() {
+		String title = language == Language.BG ? QuizParser.QUIZ_TITLE_MARKER_BG : QuizParser.QUIZ_TITLE_MARKER_EN;
+		StringBuilder quiz = new StringBuilder(title).append(" Benchmark\n\n");
+		StringBuilder answerKey = new StringBuilder(QuizParser.answerKeyMarker(language)).append('\n');
+		for (int i = 1; i <= questionCount; i++) {
+			quiz.append(i).append(". Which of the following statements about topic ").append(i).append(" is correct?\n");
+			for (char option = 'A'; option <= 'D'; option++) {
+				quiz.append(option).append(". Statement ").append(option).append(" about topic ").append(i).append('\n');
+			}
+			quiz.append('\n');
+			answerKey.append(i).append(". ").append((char) ('A' + i % 4)).append('\n');
+		}
+		text = quiz.append(answerKey).toString();
+	}
+
+	@Benchmark
+	public QuizParseResult singlePass() {
+		return QuizParser.parse(text, language);
+	}
+
+	@Benchmark
+	public List<QuizlyQuestionGroup> regex() {
+		// the parse QuizlyDocumentServiceImpl ran before QuizParser
+		String[] quizSections = text.split(QuizParser.answerKeyMarker(language));
+		String questionGroup = quizSections[0].trim();
+		String answerKey = quizSections[1].trim();
+
+		Pattern questionPattern = Pattern.compile("(\\d+\\.\\s+[^\\n]+)\\n\\s*(A\\.\\s+[^\\n]+)\\n\\s*(B\\.\\s+[^\\n]+)\\n\\s*(C\\.\\s+[^\\n]+)\\n\\s*(D\\.\\s+[^\\n]+)\\n?", Pattern.MULTILINE);
+		Matcher questionMatcher = questionPattern.matcher(questionGroup);
+		Pattern answerKeyPattern = Pattern.compile("(\\d+)\\.\\s*([^\\n]+)");
+		Matcher answerKeyMatcher = answerKeyPattern.matcher(answerKey);
+		List<String> answers = new ArrayList<>();
+		while (answerKeyMatcher.find()) {
+			answers.add(answerKeyMatcher.group(2).trim());
+		}
+
+		List<QuizlyQuestionGroup> questions = new ArrayList<>();
+		int index = 0;
+		while (questionMatcher.find()) {
+			List<String> options = Arrays.asList(
+					questionMatcher.group(2).trim(),
+					questionMatcher.group(3).trim(),
+					questionMatcher.group(4).trim(),
+					questionMatcher.group(5).trim()
+			);
+			questions.add(QuizlyQuestionGroup.builder()
+					.question(questionMatcher.group(1).trim())
+					.options(options)
+					.answer(answers.size() > index ? answers.get(index) : QuizParser.NO_ANSWER_PROVIDED)
+					.build());
+			index++;
+		}
+		return questions;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(QuizParserBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
@@ -0,0 +1,265 @@
+package com.morris.quizly.models.quiz;
+
+import com.morris.quizly.models.locales.Language;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizParserTest {
+
+	@Test
+	void parsesEnglishQuiz() {
+		String text = """
+				Quiz Title: Planets
+
+				1. Which planet is closest to the Sun?
+				A. Mercury
+				B. Venus
+				C. Earth
+				D. Mars
+
+				2. Which planet is the largest?
+				A. Saturn
+				B. Jupiter
+				C. Neptune
+				D. Uranus
+
+				Answer Key:
+				1. A. Mercury
+				2. B. Jupiter
+				""";
+
+		QuizParseResult result = QuizParser.parse(text, Language.EN);
+
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		assertEquals(2, result.getQuestionGroups().size());
+		QuizlyQuestionGroup first = result.getQuestionGroups().get(0);
+		assertEquals("1. Which planet is closest to the Sun?", first.getQuestion());
+		assertEquals(List.of("A. Mercury", "B. Venus", "C. Earth", "D. Mars"), first.getOptions());
+		assertEquals("A. Mercury", first.getAnswer());
+		assertEquals("B. Jupiter", result.getQuestionGroups().get(1).getAnswer());
+		assertEquals("1. A. Mercury\n2. B. Jupiter", result.getAnswerKey());
+	}
+
+	@Test
+	void parsesBulgarianQuizWithCyrillicOptions() {
+		String text = """
+				Заглавие на теста: Планети
+				1. Коя планета е най-близо до Слънцето?
+				А) Меркурий
+				Б) Венера
+				В) Земя
+				Г) Марс
+				Ключ за отговори:
+				1) А
+				""";
+
+		QuizParseResult result = QuizParser.parse(text, Language.BG);
+
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		QuizlyQuestionGroup group = result.getQuestionGroups().get(0);
+		assertEquals(List.of("А. Меркурий", "Б. Венера", "В. Земя", "Г. Марс"), group.getOptions());
+		assertEquals("А", group.getAnswer());
+		assertEquals("1. А", result.getAnswerKey());
+	}
+
+	@Test
+	void toleratesFormattingDrift() {
+		String text = """
+				1) What does the acronym
+				   JVM stand for?
+
+
+				A) Java Virtual
+				   Machine
+				B) Java Variable Method
+				C. Joint Vector Module
+				D) Just Very Mutable
+				Answer Key: 1. A
+				""";
+
+		QuizParseResult result = QuizParser.parse(text, Language.EN);
+
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		QuizlyQuestionGroup group = result.getQuestionGroups().get(0);
+		assertEquals("1. What does the acronym JVM stand for?", group.getQuestion());
+		assertEquals(List.of("A. Java Virtual Machine", "B. Java Variable Method", "C. Joint Vector Module",
+				"D. Just Very Mutable"), group.getOptions());
+		assertEquals("A", group.getAnswer());
+	}
+
+	@Test
+	void acceptsAnswersWithoutSpaceAfterTheNumber() {
+		String text = """
+				1. First
+				A. a
+				B. b
+				C. c
+				D. d
+				2. Second
+				A. a
+				B. b
+				C. c
+				D. d
+				Answer Key:
+				1.A
+				2)B
+				""";
+
+		QuizParseResult result = QuizParser.parse(text, Language.EN);
+
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		assertEquals("A", result.getQuestionGroups().get(0).getAnswer());
+		assertEquals("B", result.getQuestionGroups().get(1).getAnswer());
+		assertEquals("1. A\n2. B", result.getAnswerKey());
+	}
+
+	@Test
+	void recognizesAnswerKeyMarkerInsideMarkup() {
+		String text = """
+				1. Question
+				A. a
+				B. b
+				C. c
+				D. d
+
+				**Answer Key:**
+				1. C
+				""";
+
+		QuizParseResult result = QuizParser.parse(text, Language.EN);
+
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		assertEquals("C", result.getQuestionGroups().get(0).getAnswer());
+
+		result = QuizParser.parse(text.replace("**Answer Key:**\n", "### Answer Key: "), Language.EN);
+
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		assertEquals("C", result.getQuestionGroups().get(0).getAnswer());
+	}
+
+	@Test
+	void matchesAnswersByPositionWhenNumberingDiffers() {
+		String text = """
+				5. Question
+				A. a
+				B. b
+				C. c
+				D. d
+				Answer Key:
+				1. C
+				""";
+
+		QuizParseResult result = QuizParser.parse(text, Language.EN);
+
+		assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+		assertEquals("C", result.getQuestionGroups().get(0).getAnswer());
+		assertEquals("5. C", result.getAnswerKey());
+	}
+
+	@Test
+	void reportsMissingAnswerKey() {
+		String text = """
+				1. Question
+				A. a
+				B. b
+				C. c
+				D. d
+				""";
+
+		QuizParseResult result = QuizParser.parse(text, Language.EN);
+
+		assertEquals(1, result.getQuestionGroups().size());
+		assertEquals(QuizParser.NO_ANSWER_PROVIDED, result.getQuestionGroups().get(0).getAnswer());
+		assertErrors(result, QuizParseErrorType.MISSING_ANSWER_KEY);
+	}
+
+	@Test
+	void reportsMissingAnswer() {
+		String text = """
+				1. First
+				A. a
+				B. b
+				C. c
+				D. d
+				2. Second
+				A. a
+				B. b
+				C. c
+				D. d
+				Ключ за отговори:
+				1. Б
+				""";
+
+		QuizParseResult result = QuizParser.parse(text, Language.BG);
+
+		assertEquals("Б", result.getQuestionGroups().get(0).getAnswer());
+		assertEquals(QuizParser.NO_ANSWER_PROVIDED, result.getQuestionGroups().get(1).getAnswer());
+		assertEquals("1. Б\n2. " + QuizParser.NO_ANSWER_PROVIDED, result.getAnswerKey());
+		assertErrors(result, QuizParseErrorType.MISSING_ANSWER);
+		assertEquals("question 2", result.getErrors().get(0).getDetail());
+	}
+
+	@Test
+	void reportsIncompleteQuestion() {
+		String text = """
+				1. Cut short
+				A. a
+				B. b
+				C. c
+				2. Complete
+				A. a
+				B. b
+				C. c
+				D. d
+				Answer Key:
+				2. D
+				""";
+
+		QuizParseResult result = QuizParser.parse(text, Language.EN);
+
+		assertEquals(1, result.getQuestionGroups().size());
+		assertEquals("2. Complete", result.getQuestionGroups().get(0).getQuestion());
+		assertEquals("D", result.getQuestionGroups().get(0).getAnswer());
+		assertErrors(result, QuizParseErrorType.INCOMPLETE_QUESTION);
+		assertEquals(1, result.getErrors().get(0).getLine());
+	}
+
+	@Test
+	void reportsUnexpectedLines() {
+		String text = """
+				Here is your quiz!
+				1. Question
+				A. a
+				B. b
+				C. c
+				D. d
+				Answer Key:
+				1. A
+				Good luck!
+				""";
+
+		QuizParseResult result = QuizParser.parse(text, Language.EN);
+
+		assertEquals("A", result.getQuestionGroups().get(0).getAnswer());
+		assertErrors(result, QuizParseErrorType.UNEXPECTED_LINE, QuizParseErrorType.UNEXPECTED_LINE);
+		assertEquals(1, result.getErrors().get(0).getLine());
+		assertEquals("Good luck!", result.getErrors().get(1).getDetail());
+	}
+
+	@Test
+	void emptyResponseHasNoQuestions() {
+		QuizParseResult result = QuizParser.parse("", Language.EN);
+
+		assertTrue(result.getQuestionGroups().isEmpty());
+		assertEquals("", result.getAnswerKey());
+		assertErrors(result, QuizParseErrorType.MISSING_ANSWER_KEY);
+	}
+
+	private static void assertErrors(QuizParseResult result, QuizParseErrorType... types) {
+		assertEquals(List.of(types), result.getErrors().stream().map(QuizParseError::getType).toList(),
+				result.getErrors().toString());
+	}
+}
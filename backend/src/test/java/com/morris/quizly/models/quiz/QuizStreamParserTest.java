@@ -0,0 +1,69 @@
+package com.morris.quizly.models.quiz;
+
+import com.morris.quizly.models.locales.Language;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuizStreamParserTest {
+
+	@Test
+	void emitsEachGroupOnceItsLastOptionIsComplete() {
+		QuizStreamParser parser = new QuizStreamParser(Language.EN);
+
+		assertTrue(parser.accept("Quiz Title: Planets\n\n1. Closest to the Sun?\nA. Mercury\nB. Venus\nC. Ea").isEmpty());
+		assertTrue(parser.accept("rth\nD. Ma").isEmpty());
+		List<QuizlyQuestionGroup> completed = parser.accept("rs\n\n2. Largest?\n");
+
+		assertEquals(1, completed.size());
+		assertEquals("1. Closest to the Sun?", completed.get(0).getQuestion());
+		assertEquals(List.of("A. Mercury", "B. Venus", "C. Earth", "D. Mars"), completed.get(0).getOptions());
+		assertNull(completed.get(0).getAnswer());
+	}
+
+	@Test
+	void normalizesSeparatorsLikeTheFullParse() {
+		String text = "1) Коя планета\n   е най-голяма?\nА) Сатурн\nБ) Юпитер,\n   газов гигант\nВ. Нептун\nГ) Уран\nКлюч за отговори:\n1. Б\n";
+
+		List<QuizlyQuestionGroup> streamed = streamByCharacter(text, Language.BG);
+		QuizParseResult parsed = QuizParser.parse(text, Language.BG);
+
+		assertEquals(1, streamed.size());
+		assertEquals(parsed.getQuestionGroups().get(0).getQuestion(), streamed.get(0).getQuestion());
+		assertEquals(parsed.getQuestionGroups().get(0).getOptions(), streamed.get(0).getOptions());
+		assertEquals("1. Коя планета е най-голяма?", streamed.get(0).getQuestion());
+		assertEquals("Б. Юпитер, газов гигант", streamed.get(0).getOptions().get(1));
+	}
+
+	@Test
+	void finishCompletesTheLastLine() {
+		QuizStreamParser parser = new QuizStreamParser(Language.EN);
+
+		assertTrue(parser.accept("1. Question\nA. a\nB. b\nC. c\nD. d").isEmpty());
+
+		assertEquals(1, parser.finish().size());
+	}
+
+	@Test
+	void ignoresTheAnswerKeyAndIncompleteQuestions() {
+		String text = "1. Cut short\nA. a\nB. b\n2. Complete\nA. a\nB. b\nC. c\nD. d\nAnswer Key:\n1. A\n2. B\n3. Not a question\nA. a\nB. b\nC. c\nD. d\n";
+
+		List<QuizlyQuestionGroup> streamed = streamByCharacter(text, Language.EN);
+
+		assertEquals(1, streamed.size());
+		assertEquals("2. Complete", streamed.get(0).getQuestion());
+	}
+
+	private static List<QuizlyQuestionGroup> streamByCharacter(String text, Language language) {
+		QuizStreamParser parser = new QuizStreamParser(language);
+		List<QuizlyQuestionGroup> streamed = new ArrayList<>();
+		for (int i = 0; i < text.length(); i++) {
+			streamed.addAll(parser.accept(text.substring(i, i + 1)));
+		}
+		streamed.addAll(parser.finish());
+		return streamed;
+	}
+}
@@ -0,0 +1,136 @@
+package com.morris.quizly.models.quiz;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.ToStringSerializer;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.morris.quizly.models.locales.Language;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares serializing a page of the quiz listing in the {@link Quiz} shape it returned before, with the
+ * question groups, PDF bytes, embeddings and base64 PNG thumbnail, against a page of {@link QuizSummary}.
+ * A page holds the default 9 quizzes of 10 questions. The PDF and thumbnail sizes are typical of the
+ * generated documents and the 300 DPI PNGs. JSON bytes per page are printed before the run, the GC
+ * profiler reports allocation per page. Run with the main method from the test classpath, it is not part
+ * of the test phase.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QuizSummaryBenchmark {
+	private static final int PAGE_SIZE = 9;
+	private static final int QUESTION_COUNT = 10;
+	private static final int EMBEDDING_DIMENSIONS = 1536;
+	private static final int PDF_BYTES = 40 * 1024;
+	private static final int THUMBNAIL_PNG_BYTES = 150 * 1024;
+	private static final String THUMBNAIL_URL = "/api/quiz-retrieval/quizzes/%s/thumbnail";
+
+	private ObjectMapper objectMapper;
+	private List<LegacyQuiz> legacyPage;
+	private List<QuizSummary> summaryPage;
+
+	/**
+	 * The listing entity as it was before {@link QuizSummary}, binaries and embeddings included.
+	 */
+	record LegacyQuiz(
+			@JsonProperty("_id") @JsonSerialize(using = ToStringSerializer.class) ObjectId id,
+			String userId,
+			String quizTitle,
+			List<QuizlyQuestionGroup> questionsGroup,
+			byte[] pdfContent,
+			List<Double> pdfEmbeddings,
+			String pdfImage,
+			Language language,
+			String prompt,
+			List<String> recommendations,
+			float score,
+			LocalDateTime createdDate) {
+	}
+
+	@Setup
+	public void setUp() {
+		// the Java time support Spring Boot registers on its ObjectMapper
+		objectMapper = new ObjectMapper()
+				.registerModule(new JavaTimeModule())
+				.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+		Random random = new Random(42);
+		legacyPage = new ArrayList<>();
+		summaryPage = new ArrayList<>();
+		for (int i = 0; i < PAGE_SIZE; i++) {
+			ObjectId id = new ObjectId();
+			LocalDateTime createdDate = LocalDateTime.now().minusDays(i);
+			String quizTitle = "Benchmark quiz " + i;
+
+			List<QuizlyQuestionGroup> questionsGroup = new ArrayList<>();
+			for (int q = 1; q <= QUESTION_COUNT; q++) {
+				questionsGroup.add(QuizlyQuestionGroup.builder()
+						.question(q + ". Which of the following statements about topic " + q + " is correct?")
+						.options(List.of("A. Statement A", "B. Statement B", "C. Statement C", "D. Statement D"))
+						.answer(q + ". A")
+						.build());
+			}
+			byte[] pdfContent = new byte[PDF_BYTES];
+			random.nextBytes(pdfContent);
+			byte[] thumbnail = new byte[THUMBNAIL_PNG_BYTES];
+			random.nextBytes(thumbnail);
+			List<Double> pdfEmbeddings = new ArrayList<>(EMBEDDING_DIMENSIONS);
+			for (int d = 0; d < EMBEDDING_DIMENSIONS; d++) {
+				pdfEmbeddings.add((double) (random.nextFloat() * 2 - 1));
+			}
+
+			legacyPage.add(new LegacyQuiz(id, "benchmark-user", quizTitle, questionsGroup, pdfContent, pdfEmbeddings,
+					Base64.getEncoder().encodeToString(thumbnail), Language.EN, "benchmark prompt", List.of(), 0f,
+					createdDate));
+			summaryPage.add(QuizSummary.builder()
+					.id(id)
+					.quizTitle(quizTitle)
+					.language(Language.EN)
+					.questionCount(QUESTION_COUNT)
+					.thumbnailUrl(String.format(THUMBNAIL_URL, id.toHexString()))
+					.createdDate(createdDate)
+					.build());
+		}
+	}
+
+	@Benchmark
+	public byte[] legacyQuizPage() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(legacyPage);
+	}
+
+	@Benchmark
+	public byte[] quizSummaryPage() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(summaryPage);
+	}
+
+	public static void main(String[] args) throws RunnerException, JsonProcessingException {
+		QuizSummaryBenchmark benchmark = new QuizSummaryBenchmark();
+		benchmark.setUp();
+		System.out.printf("legacy Quiz page: %d bytes%n", benchmark.legacyQuizPage().length);
+		System.out.printf("QuizSummary page: %d bytes%n", benchmark.quizSummaryPage().length);
+
+		new Runner(new OptionsBuilder()
+				.include(QuizSummaryBenchmark.class.getSimpleName())
+				.addProfiler(GCProfiler.class)
+				.build()).run();
+	}
+}
@@ -0,0 +1,90 @@
+package com.morris.quizly.models.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedDaoAuthenticationProviderTest {
+	private static final String USERNAME = "ada@example.com";
+	private static final String PASSWORD = "correct horse battery staple";
+	private static final String STORED_HASH = "$2a$10$stored";
+	private static final String UPGRADED_HASH = "$2a$12$upgraded";
+
+	private final List<String> upgradedPasswords = new ArrayList<>();
+	private boolean hashingSaturated;
+	private BoundedDaoAuthenticationProvider authenticationProvider;
+
+	@BeforeEach
+	void setUp() {
+		PasswordEncoder passwordEncoder = new PasswordEncoder() {
+			@Override
+			public String encode(CharSequence rawPassword) {
+				// the provider also hashes a dummy password once, against user enumeration by timing
+				if (hashingSaturated && PASSWORD.contentEquals(rawPassword)) {
+					throw new PasswordHashingRejectedException(1);
+				}
+				return UPGRADED_HASH;
+			}
+
+			@Override
+			public boolean matches(CharSequence rawPassword, String encodedPassword) {
+				return PASSWORD.contentEquals(rawPassword) && STORED_HASH.equals(encodedPassword);
+			}
+
+			@Override
+			public boolean upgradeEncoding(String encodedPassword) {
+				return STORED_HASH.equals(encodedPassword);
+			}
+		};
+		authenticationProvider = new BoundedDaoAuthenticationProvider(passwordEncoder);
+		authenticationProvider.setUserDetailsService(username -> User.withUsername(username)
+				.password(STORED_HASH)
+				.roles("USER")
+				.build());
+		authenticationProvider.setUserDetailsPasswordService((user, newPassword) -> {
+			upgradedPasswords.add(newPassword);
+			return User.withUserDetails(user).password(newPassword).build();
+		});
+	}
+
+	@Test
+	void upgradesPasswordEncodingOnLogin() {
+		Authentication authentication = authenticationProvider.authenticate(login(PASSWORD));
+
+		assertTrue(authentication.isAuthenticated());
+		assertEquals(List.of(UPGRADED_HASH), upgradedPasswords);
+	}
+
+	@Test
+	void rejectedRehashSkipsTheUpgrade() {
+		hashingSaturated = true;
+
+		Authentication authentication = authenticationProvider.authenticate(login(PASSWORD));
+
+		assertTrue(authentication.isAuthenticated());
+		assertEquals(USERNAME, ((User) authentication.getPrincipal()).getUsername());
+		assertEquals("ROLE_USER", authentication.getAuthorities().iterator().next().getAuthority());
+		assertTrue(upgradedPasswords.isEmpty());
+	}
+
+	@Test
+	void wrongPasswordIsStillRejected() {
+		hashingSaturated = true;
+
+		assertThrows(BadCredentialsException.class, () -> authenticationProvider.authenticate(login("wrong")));
+		assertTrue(upgradedPasswords.isEmpty());
+	}
+
+	private static UsernamePasswordAuthenticationToken login(String password) {
+		return UsernamePasswordAuthenticationToken.unauthenticated(USERNAME, password);
+	}
+}
@@ -0,0 +1,70 @@
+package com.morris.quizly.models.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.security.Key;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the request path of the JWT filter before and after the parser was cached. Previously the filter
+ * validated a token and then read its username, building a new parser and verifying the signature for
+ * each call. Now it parses the token once with the shared parser. One benchmark thread measures tokens
+ * validated per second per core. Run with the main method from the test classpath, it is not part of the
+ * test phase.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class JwtTokenProviderBenchmark {
+	private static final String SECRET_KEY = "benchmark-secret-key-with-at-least-256-bits";
+	private static final String USERNAME = "benchmark-user";
+
+	private JwtTokenProvider jwtTokenProvider;
+	private Key key;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		ConfigurationComponent configurationComponent = new ConfigurationComponent();
+		ReflectionTestUtils.setField(configurationComponent, "jwtSecretKey", SECRET_KEY);
+		ReflectionTestUtils.setField(configurationComponent, "jwtExpireLength", TimeUnit.HOURS.toMillis(1));
+		jwtTokenProvider = new JwtTokenProvider(configurationComponent);
+		jwtTokenProvider.init();
+
+		String secretKey = Base64.getEncoder().encodeToString(SECRET_KEY.getBytes());
+		key = new SecretKeySpec(secretKey.getBytes(), SignatureAlgorithm.HS256.getJcaName());
+		token = jwtTokenProvider.createToken(USERNAME, new ObjectId().toHexString(), List.of("USER"));
+	}
+
+	@Benchmark
+	public String parserPerCall() {
+		// validateToken and getUsername each built their own parser and verified the signature
+		Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token);
+		return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+	}
+
+	@Benchmark
+	public String cachedParserSingleParse() {
+		return jwtTokenProvider.parse(token).getUsername();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder()
+				.include(JwtTokenProviderBenchmark.class.getSimpleName())
+				.build()).run();
+	}
+}
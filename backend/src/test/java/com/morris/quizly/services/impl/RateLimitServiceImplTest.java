@@ -0,0 +1,116 @@
+package com.morris.quizly.services.impl;
+
+import com.morris.quizly.models.security.ConfigurationComponent;
+import com.morris.quizly.models.security.RateLimitRoute;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitServiceImplTest {
+	private static final int USER_CAPACITY = 3;
+	private static final int IP_CAPACITY = 5;
+	private static final long REFILL_PERIOD_SECONDS = 60;
+	private static final String CLIENT_IP = "203.0.113.7";
+	private static final String OTHER_CLIENT_IP = "198.51.100.23";
+	private static final String USER_ID = "6690f0c2a1b2c3d4e5f60718";
+
+	private final AtomicLong nanoTime = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+	private SimpleMeterRegistry meterRegistry;
+	private RateLimitServiceImpl rateLimitService;
+
+	@BeforeEach
+	void setUp() {
+		ConfigurationComponent configurationComponent = new ConfigurationComponent();
+		ReflectionTestUtils.setField(configurationComponent, "rateLimitMaxKeys", 1000L);
+		ReflectionTestUtils.setField(configurationComponent, "rateLimitQuizGenerationCapacity", USER_CAPACITY);
+		ReflectionTestUtils.setField(configurationComponent, "rateLimitQuizGenerationIpCapacity", IP_CAPACITY);
+		ReflectionTestUtils.setField(configurationComponent, "rateLimitQuizGenerationRefillPeriodSeconds", REFILL_PERIOD_SECONDS);
+		ReflectionTestUtils.setField(configurationComponent, "rateLimitAuthCapacity", USER_CAPACITY);
+		ReflectionTestUtils.setField(configurationComponent, "rateLimitAuthIpCapacity", IP_CAPACITY);
+		ReflectionTestUtils.setField(configurationComponent, "rateLimitAuthRefillPeriodSeconds", REFILL_PERIOD_SECONDS);
+
+		meterRegistry = new SimpleMeterRegistry();
+		rateLimitService = new RateLimitServiceImpl(configurationComponent, meterRegistry, nanoTime::get);
+	}
+
+	@Test
+	void allowsBurstUpToCapacity() {
+		for (int i = 0; i < IP_CAPACITY; i++) {
+			assertEquals(0, rateLimitService.tryAcquire(RateLimitRoute.QUIZ_GENERATION, CLIENT_IP, null), "request " + i);
+		}
+
+		// the next token is one emission interval, period / capacity, away
+		assertEquals(emissionIntervalNanos(IP_CAPACITY),
+				rateLimitService.tryAcquire(RateLimitRoute.QUIZ_GENERATION, CLIENT_IP, null));
+		assertEquals(IP_CAPACITY, count("allowed", "ip"));
+		assertEquals(1, count("rejected", "ip"));
+	}
+
+	@Test
+	void refillsOneTokenPerEmissionInterval() {
+		for (int i = 0; i < IP_CAPACITY; i++) {
+			rateLimitService.tryAcquire(RateLimitRoute.QUIZ_GENERATION, CLIENT_IP, null);
+		}
+
+		nanoTime.addAndGet(emissionIntervalNanos(IP_CAPACITY) - 1);
+		assertEquals(1, rateLimitService.tryAcquire(RateLimitRoute.QUIZ_GENERATION, CLIENT_IP, null));
+
+		nanoTime.incrementAndGet();
+		assertEquals(0, rateLimitService.tryAcquire(RateLimitRoute.QUIZ_GENERATION, CLIENT_IP, null));
+		assertTrue(rateLimitService.tryAcquire(RateLimitRoute.QUIZ_GENERATION, CLIENT_IP, null) > 0);
+
+		// a bucket idle for a full period is full again
+		nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(REFILL_PERIOD_SECONDS));
+		for (int i = 0; i < IP_CAPACITY; i++) {
+			assertEquals(0, rateLimitService.tryAcquire(RateLimitRoute.QUIZ_GENERATION, CLIENT_IP, null), "request " + i);
+		}
+	}
+
+	@Test
+	void exhaustedIpBucketDoesNotSpendUserTokens() {
+		for (int i = 0; i < IP_CAPACITY; i++) {
+			rateLimitService.tryAcquire(RateLimitRoute.QUIZ_GENERATION, CLIENT_IP, null);
+		}
+		for (int i = 0; i < USER_CAPACITY; i++) {
+			assertTrue(rateLimitService.tryAcquire(RateLimitRoute.QUIZ_GENERATION, CLIENT_IP, USER_ID) > 0);
+		}
+
+		// the user still has a full bucket from another address
+		for (int i = 0; i < USER_CAPACITY; i++) {
+			assertEquals(0, rateLimitService.tryAcquire(RateLimitRoute.QUIZ_GENERATION, OTHER_CLIENT_IP, USER_ID), "request " + i);
+		}
+		assertEquals(0, count("rejected", "user"));
+	}
+
+	@Test
+	void userBucketIsSharedAcrossAddresses() {
+		for (int i = 0; i < USER_CAPACITY; i++) {
+			String clientIp = i % 2 == 0 ? CLIENT_IP : OTHER_CLIENT_IP;
+			assertEquals(0, rateLimitService.tryAcquire(RateLimitRoute.QUIZ_GENERATION, clientIp, USER_ID), "request " + i);
+		}
+
+		assertTrue(rateLimitService.tryAcquire(RateLimitRoute.QUIZ_GENERATION, OTHER_CLIENT_IP, USER_ID) > 0);
+		assertEquals(1, count("rejected", "user"));
+		// route groups have buckets of their own
+		assertEquals(0, rateLimitService.tryAcquire(RateLimitRoute.AUTH, CLIENT_IP, USER_ID));
+	}
+
+	private static long emissionIntervalNanos(int capacity) {
+		return TimeUnit.SECONDS.toNanos(REFILL_PERIOD_SECONDS) / capacity;
+	}
+
+	private double count(String outcome, String scope) {
+		return meterRegistry.get("quizly.rate-limit.requests")
+				.tag("route", RateLimitRoute.QUIZ_GENERATION.name())
+				.tag("scope", scope)
+				.tag("outcome", outcome)
+				.counter()
+				.count();
+	}
+}
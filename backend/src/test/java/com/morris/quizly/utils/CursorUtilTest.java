@@ -0,0 +1,66 @@
+package com.morris.quizly.utils;
+
+import com.morris.quizly.models.quiz.QuizCursor;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CursorUtilTest {
+
+	@Test
+	void roundTrip() {
+		QuizCursor cursor = QuizCursor.builder()
+				.createdDate(LocalDateTime.of(2024, 7, 1, 12, 30, 15, 123_000_000))
+				.id(new ObjectId())
+				.build();
+
+		QuizCursor decoded = CursorUtil.decodeQuizCursor(CursorUtil.encodeQuizCursor(cursor));
+
+		assertEquals(cursor.getCreatedDate(), decoded.getCreatedDate());
+		assertEquals(cursor.getId(), decoded.getId());
+	}
+
+	@Test
+	void roundTripWithoutCreatedDate() {
+		// legacy quizzes were saved without a createdDate
+		QuizCursor cursor = QuizCursor.builder()
+				.id(new ObjectId())
+				.build();
+
+		QuizCursor decoded = CursorUtil.decodeQuizCursor(CursorUtil.encodeQuizCursor(cursor));
+
+		assertNull(decoded.getCreatedDate());
+		assertEquals(cursor.getId(), decoded.getId());
+	}
+
+	@Test
+	void tokenIsUrlSafe() {
+		QuizCursor cursor = QuizCursor.builder()
+				.createdDate(LocalDateTime.of(2024, 7, 1, 12, 30))
+				.id(new ObjectId())
+				.build();
+
+		assertTrue(CursorUtil.encodeQuizCursor(cursor).matches("[A-Za-z0-9_-]+"));
+	}
+
+	@Test
+	void malformedTokens() {
+		String id = new ObjectId().toHexString();
+
+		assertThrows(IllegalArgumentException.class, () -> CursorUtil.decodeQuizCursor("not base64!"));
+		assertThrows(IllegalArgumentException.class, () -> CursorUtil.decodeQuizCursor(encode("2024-07-01T12:30")));
+		assertThrows(IllegalArgumentException.class, () -> CursorUtil.decodeQuizCursor(encode("yesterday|" + id)));
+		assertThrows(IllegalArgumentException.class, () -> CursorUtil.decodeQuizCursor(encode("2024-07-01T12:30|not-an-id")));
+	}
+
+	private static String encode(String position) {
+		return Base64.getUrlEncoder()
+				.withoutPadding()
+				.encodeToString(position.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,33 @@
+package com.morris.quizly.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromptUtilTest {
+
+	@Test
+	void ignoresCaseSpacingAndSentencePunctuation() {
+		assertEquals("the french revolution", PromptUtil.normalize("  The   French\tRevolution?! "));
+		assertEquals("the french revolution", PromptUtil.normalize("the french revolution."));
+	}
+
+	@Test
+	void keepsTrailingSymbols() {
+		String cpp = PromptUtil.normalize("Generate 10 questions. C++");
+		String csharp = PromptUtil.normalize("Generate 10 questions. C#");
+		String c = PromptUtil.normalize("Generate 10 questions. C");
+
+		assertEquals("generate 10 questions. c++", cpp);
+		assertEquals("generate 10 questions. c#", csharp);
+		assertNotEquals(cpp, csharp);
+		assertNotEquals(cpp, c);
+		assertNotEquals(csharp, c);
+	}
+
+	@Test
+	void stripsSentencePunctuationAfterSymbols() {
+		assertEquals("c++", PromptUtil.normalize("C++."));
+		assertEquals("c#", PromptUtil.normalize("C#?"));
+	}
+}
@@ -0,0 +1,184 @@
+package com.morris.quizly.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+	private static final String KEY = "en:10:the french revolution";
+	private static final Duration WAIT = Duration.ofSeconds(10);
+
+	private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+	private final AtomicInteger calls = new AtomicInteger();
+	private final CountDownLatch leaderStarted = new CountDownLatch(1);
+	private final CountDownLatch releaseLeader = new CountDownLatch(1);
+	private final List<Thread> threads = new ArrayList<>();
+
+	@AfterEach
+	void tearDown() throws InterruptedException {
+		releaseLeader.countDown();
+		for (Thread thread : threads) {
+			thread.interrupt();
+			thread.join(TimeUnit.SECONDS.toMillis(5));
+		}
+	}
+
+	@Test
+	void followersShareTheLeadersResult() throws Exception {
+		AtomicReference<Object> leaderResult = new AtomicReference<>();
+		start(leaderResult, blockingCall(() -> "quiz"));
+		assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+		List<AtomicReference<Object>> followerResults = new ArrayList<>();
+		List<Thread> followers = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			AtomicReference<Object> result = new AtomicReference<>();
+			followerResults.add(result);
+			followers.add(start(result, countingCall(() -> "own quiz")));
+		}
+		awaitWaiting(followers);
+		releaseLeader.countDown();
+		joinAll();
+
+		assertEquals(1, calls.get());
+		assertEquals("quiz", leaderResult.get());
+		followerResults.forEach(result -> assertEquals("quiz", result.get()));
+	}
+
+	@Test
+	void followersShareTheLeadersException() throws Exception {
+		IllegalStateException failure = new IllegalStateException("generation failed");
+		AtomicReference<Object> leaderResult = new AtomicReference<>();
+		start(leaderResult, blockingCall(() -> {
+			throw failure;
+		}));
+		assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+		AtomicReference<Object> followerResult = new AtomicReference<>();
+		Thread follower = start(followerResult, countingCall(() -> "own quiz"));
+		awaitWaiting(List.of(follower));
+		releaseLeader.countDown();
+		joinAll();
+
+		assertEquals(1, calls.get());
+		assertSame(failure, leaderResult.get());
+		assertSame(failure, followerResult.get());
+	}
+
+	@Test
+	void followerStopsWaitingAfterItsTimeout() throws Exception {
+		start(new AtomicReference<>(), blockingCall(() -> "quiz"));
+		assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+		assertThrows(TimeoutException.class,
+				() -> singleFlight.execute(KEY, countingCall(() -> "own quiz"), Duration.ofMillis(50)));
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	void interruptedFollowerStopsWaiting() throws Exception {
+		start(new AtomicReference<>(), blockingCall(() -> "quiz"));
+		assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+		AtomicReference<Object> followerResult = new AtomicReference<>();
+		Thread follower = start(followerResult, countingCall(() -> "own quiz"));
+		awaitWaiting(List.of(follower));
+		follower.interrupt();
+		follower.join(TimeUnit.SECONDS.toMillis(5));
+
+		assertInstanceOf(InterruptedException.class, followerResult.get());
+		assertEquals(1, calls.get());
+	}
+
+	@Test
+	void keyIsReleasedOnceTheCallCompletes() throws Exception {
+		assertEquals("first", singleFlight.execute(KEY, countingCall(() -> "first"), WAIT));
+		assertEquals("second", singleFlight.execute(KEY, countingCall(() -> "second"), WAIT));
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	void keyIsReleasedWhenTheCallFails() throws Exception {
+		assertThrows(IllegalStateException.class, () -> singleFlight.execute(KEY, countingCall(() -> {
+			throw new IllegalStateException("generation failed");
+		}), WAIT));
+		assertEquals("quiz", singleFlight.execute(KEY, countingCall(() -> "quiz"), WAIT));
+		assertEquals(2, calls.get());
+	}
+
+	@Test
+	void differentKeysAreNotCoalesced() throws Exception {
+		start(new AtomicReference<>(), blockingCall(() -> "c++ quiz"));
+		assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+		assertEquals("c# quiz", singleFlight.execute("en:10:c#", countingCall(() -> "c# quiz"), WAIT));
+		assertEquals(2, calls.get());
+	}
+
+	private Supplier<String> countingCall(Supplier<String> call) {
+		return () -> {
+			calls.incrementAndGet();
+			return call.get();
+		};
+	}
+
+	private Supplier<String> blockingCall(Supplier<String> call) {
+		return countingCall(() -> {
+			leaderStarted.countDown();
+			try {
+				releaseLeader.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return call.get();
+		});
+	}
+
+	/**
+	 * Start a caller of {@link #KEY}. Its result, or the exception it ended with, is stored in result.
+	 */
+	private Thread start(AtomicReference<Object> result, Supplier<String> call) {
+		Thread thread = new Thread(() -> {
+			try {
+				result.set(singleFlight.execute(KEY, call, WAIT));
+			} catch (Exception e) {
+				result.set(e);
+			}
+		});
+		threads.add(thread);
+		thread.start();
+		return thread;
+	}
+
+	/**
+	 * Followers wait for the call in flight with a timeout, so they are parked in TIMED_WAITING once they
+	 * have joined it. The leader waits on its latch without one.
+	 */
+	private void awaitWaiting(List<Thread> followers) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		for (Thread follower : followers) {
+			while (follower.getState() != Thread.State.TIMED_WAITING) {
+				assertTrue(System.nanoTime() < deadline, "follower did not join the call in flight");
+				Thread.sleep(1);
+			}
+		}
+	}
+
+	private void joinAll() throws InterruptedException {
+		for (Thread thread : threads) {
+			thread.join(TimeUnit.SECONDS.toMillis(5));
+			assertFalse(thread.isAlive());
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package com.morris.quizly.utils;
+
+import org.bson.types.Binary;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VectorUtilTest {
+
+	@Test
+	void emptyVectorRoundTrip() {
+		Binary binary = VectorUtil.toBinaryVector(new float[0]);
+
+		assertEquals(VectorUtil.BINARY_VECTOR_SUBTYPE, binary.getType());
+		assertArrayEquals(new byte[]{0x27, 0x00}, binary.getData());
+		assertArrayEquals(new float[0], VectorUtil.fromBinaryVector(binary));
+	}
+
+	@Test
+	void knownByteLayout() {
+		Binary binary = VectorUtil.toBinaryVector(new float[]{1.0f, -2.5f});
+
+		// float32 dtype, no padding, then each float little-endian: 0x3F800000 and 0xC0200000
+		assertArrayEquals(new byte[]{
+				0x27, 0x00,
+				0x00, 0x00, (byte) 0x80, 0x3F,
+				0x00, 0x00, 0x20, (byte) 0xC0
+		}, binary.getData());
+	}
+
+	@Test
+	void signedZeroAndNaNRoundTrip() {
+		float[] vector = {0.0f, -0.0f, Float.NaN, Float.POSITIVE_INFINITY, Float.MIN_VALUE, -Float.MAX_VALUE};
+
+		float[] decoded = VectorUtil.fromBinaryVector(VectorUtil.toBinaryVector(vector));
+
+		assertEquals(vector.length, decoded.length);
+		for (int i = 0; i < vector.length; i++) {
+			assertEquals(Float.floatToRawIntBits(vector[i]), Float.floatToRawIntBits(decoded[i]), "element " + i);
+		}
+	}
+
+	@Test
+	void embeddingSizedRoundTrip() {
+		float[] vector = new float[1536];
+		for (int i = 0; i < vector.length; i++) {
+			vector[i] = (float) Math.sin(i) / (i + 1);
+		}
+
+		Binary binary = VectorUtil.toBinaryVector(vector);
+
+		assertEquals(2 + vector.length * Float.BYTES, binary.getData().length);
+		assertArrayEquals(vector, VectorUtil.fromBinaryVector(binary));
+	}
+
+	@Test
+	void rejectsNonFloat32Binaries() {
+		assertThrows(IllegalArgumentException.class,
+				() -> VectorUtil.fromBinaryVector(new Binary((byte) 0, new byte[]{0x27, 0x00})));
+		assertThrows(IllegalArgumentException.class,
+				() -> VectorUtil.fromBinaryVector(new Binary(VectorUtil.BINARY_VECTOR_SUBTYPE, new byte[]{0x03, 0x00, 0x01})));
+		assertThrows(IllegalArgumentException.class,
+				() -> VectorUtil.fromBinaryVector(new Binary(VectorUtil.BINARY_VECTOR_SUBTYPE, new byte[]{0x27, 0x00, 0x01})));
+		assertThrows(IllegalArgumentException.class,
+				() -> VectorUtil.fromBinaryVector(new Binary(VectorUtil.BINARY_VECTOR_SUBTYPE, new byte[]{0x27})));
+	}
+
+	@Test
+	void fromListNarrowsStoredDoubles() {
+		assertArrayEquals(new float[]{0.25f, -1.0f, 3.0f}, VectorUtil.fromList(List.of(0.25d, -1, 3L)));
+	}
+}
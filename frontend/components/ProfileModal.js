@@ -115,7 +115,7 @@ const ProfileModal = ({  changeLanguage, open, handleClose }) => {
                                 <div style={{ display: 'flex', justifyContent: 'center', marginBottom: '20px' }}>
                                     <Avatar
                                         alt="User Profile Picture"
-                                        src={userDetails.image}
+                                        src={userDetails.avatarUrl}
                                         sx={{ width: 120, height: 120 }}
                                     />
                                 </div>
@@ -26,7 +26,7 @@ const QuizList = ({ userId }) => {
                 });
                 console.log(response.data);
                 const { _embedded, page: pageInfo } = response.data;
-                const content = _embedded ? _embedded.quizList : [];
+                const content = _embedded ? _embedded.quizSummaryList : [];
 
                 if (content.length === 0 || pageInfo.number >= pageInfo.totalPages - 1) {
                     setHasMore(false);
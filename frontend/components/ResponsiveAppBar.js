@@ -176,7 +176,7 @@ const ResponsiveAppBar = ({ userDetails, handleLogout }) => {
                         </Menu>
                         <Tooltip title="Open settings">
                             <IconButton onClick={handleOpenUserMenu} sx={{ p: 0, ml: 2 }}>
-                                <Avatar alt={userDetails.firstName} src={userDetails.image} />
+                                <Avatar alt={userDetails.firstName} src={userDetails.avatarUrl} />
                             </IconButton>
                         </Tooltip>
                         <Menu
@@ -42,6 +42,8 @@ export default function Login() {
     const { t, i18n } = useTranslation();
     const formRef = useRef(null);
     const [error, setError] = useState('');
+    const [unconfirmedEmail, setUnconfirmedEmail] = useState('');
+    const [confirmationSent, setConfirmationSent] = useState(false);
 
     React.useEffect(() => {
         const savedLanguage = localStorage.getItem('language');
@@ -54,6 +56,7 @@ export default function Login() {
         event.preventDefault();
         const form = formRef.current;
         const data = new FormData(form);
+        const emailAddress = data.get('emailAddress');
 
         axios.post('/api/auth/login', data, {
             headers: {
@@ -70,10 +73,19 @@ export default function Login() {
         }).catch(error => {
             form.reset();
             setError(t(error.response?.data.error));
+            // signup links expire, an unconfirmed user can request a new one
+            setUnconfirmedEmail(error.response?.data.error === 'User is disabled' ? emailAddress : '');
+            setConfirmationSent(false);
             console.error('Login Error: ', error.response?.data || error.message);
         });
     };
 
+    const handleResendConfirmation = () => {
+        axios.post('/api/auth/signup/resend-confirmation', { emailAddress: unconfirmedEmail })
+            .then(() => setConfirmationSent(true))
+            .catch(error => console.error('Resend Confirmation Error: ', error.response?.data || error.message));
+    };
+
     const handleLanguageChange = (language) => {
         i18n.changeLanguage(language);
         localStorage.setItem('language', language); // Save the selected language to local storage
@@ -147,6 +159,17 @@ export default function Login() {
                                     {error}
                                 </Typography>
                             )}
+                            {unconfirmedEmail && (
+                                confirmationSent ? (
+                                    <Typography variant="body2">
+                                        {t('confirmation email sent')}
+                                    </Typography>
+                                ) : (
+                                    <Link component="button" type="button" variant="body2" onClick={handleResendConfirmation}>
+                                        {t('resend confirmation email')}
+                                    </Link>
+                                )
+                            )}
                             <Button
                                 type="submit"
                                 fullWidth
@@ -19,17 +19,18 @@ const StyledCard = styled(Card)(({ theme }) => ({
 export default function DocumentMediaCard({ quiz, onClick }) {
     const { t } = useTranslation();
 
+    // the listing only carries a quiz summary, the PDF is streamed from its own endpoint
+    const quizFilesUrl = `/api/quiz-retrieval/quizzes/${quiz._id}`;
+
     const handleCardClick = () => {
-        const pdfBlob = new Blob([Uint8Array.from(atob(quiz.pdfContent), c => c.charCodeAt(0))], { type: 'application/pdf' });
-        const pdfUrl = URL.createObjectURL(pdfBlob);
-        onClick(pdfUrl);
+        onClick(`${quizFilesUrl}/pdf`);
     };
 
     return (
-        <StyledCard onClick={() => handleCardClick(quiz.pdfContent)}>
+        <StyledCard onClick={handleCardClick}>
             <CardMedia
                 sx={{ height: 140 }}
-                image={quiz.pdfImage}
+                image={quiz.thumbnailUrl}
                 title={quiz.quizTitle}
             />
             <CardContent>